@@ -247,7 +247,7 @@ public abstract class AbstractGameController implements BaseController {
         new SwingWorker<Void, Void>() {
             @Override
             protected Void doInBackground() {
-                Move move = new Move(selectionManager.getSelectedPosition(), position, '\0');
+                Move move = Move.of(selectionManager.getSelectedPosition(), position);
                 processPlayerMove(move);
                 return null;
             }
@@ -273,7 +273,7 @@ public abstract class AbstractGameController implements BaseController {
             new SwingWorker<Void, Void>() {
                 @Override
                 protected Void doInBackground() {
-                    Move move = new Move(selectionManager.getSelectedPosition(), position, '\0');
+                    Move move = Move.of(selectionManager.getSelectedPosition(), position);
                     processPlayerMove(move);
                     return null;
                 }
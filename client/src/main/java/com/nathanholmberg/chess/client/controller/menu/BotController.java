@@ -5,6 +5,7 @@ import com.nathanholmberg.chess.client.controller.MainController;
 import com.nathanholmberg.chess.client.controller.game.BotGameController;
 import com.nathanholmberg.chess.client.view.components.button.CustomButton;
 import com.nathanholmberg.chess.client.view.menu.BotPanel;
+import com.nathanholmberg.chess.engine.ai.AlphaBetaAI;
 import com.nathanholmberg.chess.engine.ai.ChessAI;
 import com.nathanholmberg.chess.engine.ai.RandomAI;
 import com.nathanholmberg.chess.engine.ai.StockfishAI;
@@ -20,6 +21,7 @@ public class BotController implements BaseController {
 
         // Bot Dropdown
         botPanel.botDropdown.addItem(new StockfishAI());
+        botPanel.botDropdown.addItem(new AlphaBetaAI());
         botPanel.botDropdown.addItem(new RandomAI());
         botPanel.botDropdown.setSelectedIndex(0);
 
@@ -124,7 +124,7 @@ public class BoardPanel extends DynamicImagedPanel {
         // Draw Piece / Overlays
         for (int rank = 0; rank < SIZE; rank++) {
             for (int file = 0; file < SIZE; file++) {
-                Position position = new Position(file, rank);
+                Position position = Position.of(file, rank);
                 Point point = positionToPoint(position);
                 point.x--; point.y--;
                 Square square = getSquare(position);
@@ -274,7 +274,7 @@ public class BoardPanel extends DynamicImagedPanel {
     public void loadPieces(ChessGame chessGame) {
         for (int file = 0; file < SIZE; file++) {
             for (int rank = 0; rank < SIZE; rank++) {
-                Position position = new Position(file, rank);
+                Position position = Position.of(file, rank);
                 Piece currentPiece = chessGame.board.getPieceAt(position);
 
                 // Set Current Piece Char
@@ -314,7 +314,7 @@ public class BoardPanel extends DynamicImagedPanel {
 
         // Get Position
         try {
-            Position pos = new Position(file, rank);
+            Position pos = Position.of(file, rank);
 
             // Inverse Position if black's perspective
             if (perspective == Color.WHITE) { return pos; }
@@ -423,7 +423,7 @@ public class BoardPanel extends DynamicImagedPanel {
     public void clearHints() {
         for (int file = 0; file < SIZE; file++) {
             for (int rank = 0; rank < SIZE; rank++) {
-                setHint(new Position(file, rank), false);
+                setHint(Position.of(file, rank), false);
             }
         }
         repaint();
@@ -432,7 +432,7 @@ public class BoardPanel extends DynamicImagedPanel {
     public void clearMarkedRed() {
         for (int file = 0; file < SIZE; file++) {
             for (int rank = 0; rank < SIZE; rank++) {
-                setMarkedRed(new Position(file, rank), false);
+                setMarkedRed(Position.of(file, rank), false);
             }
         }
     }
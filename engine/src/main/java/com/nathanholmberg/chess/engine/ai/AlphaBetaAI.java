@@ -0,0 +1,522 @@
+package com.nathanholmberg.chess.engine.ai;
+
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
+import com.nathanholmberg.chess.engine.game.Board;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.game.MoveGenerator;
+import com.nathanholmberg.chess.engine.search.MoveOrdering;
+import com.nathanholmberg.chess.engine.search.SEE;
+import com.nathanholmberg.chess.engine.search.TranspositionTable;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.MoveList;
+import com.nathanholmberg.chess.engine.types.PackedMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A chess AI that searches the game tree itself, so it runs anywhere the JVM does.
+ *
+ * <p>The search is negamax with alpha-beta pruning, deepened one ply at a time (iterative deepening)
+ * until the depth, time or node budget runs out. Each iteration records its principal variation in a
+ * triangular PV table, and the next iteration tries that line first, which is what makes deepening pay
+ * for itself. Only completed iterations count, except that the first always completes so there is a
+ * move to play.</p>
+ *
+ * <p>The other moves are ordered by {@link MoveOrdering}: captures by MVV-LVA, then killer moves,
+ * countermoves and history, picked one at a time so a cutoff leaves the rest unsorted. Each thread keeps
+ * its own ordering tables, carried from one search to the next.</p>
+ *
+ * <p>Moves are played with {@link Board#makeMove(int)} and {@link Board#unmakeMove(long)} on a copy of the
+ * game's board, with one {@link MoveList} per ply. Positions repeated along the line or since the last
+ * irreversible move of the game, and positions past the fifty move rule, score as draws.</p>
+ *
+ * <p>At the leaves a quiescence search plays out captures and promotions until the position is quiet,
+ * so a piece left hanging just past the horizon is not missed, and only quiet positions are scored by
+ * {@link Evaluation}. The side to move may stand pat on the evaluation instead of capturing. Captures that
+ * could not raise the score to alpha even winning the piece for free (delta pruning), and captures that
+ * {@link SEE} finds lose material, are not searched. In check at the horizon every move is searched, so
+ * mates there are seen; deeper in, only captures that mate are.</p>
+ *
+ * <p>Searched positions go into a {@link TranspositionTable}, kept between moves, whose best moves are
+ * tried first and whose scores cut off positions reached again. With more than one thread the search is
+ * Lazy SMP: every thread searches the same root on its own board, sharing only the table, which is
+ * lock-free, and a stop flag. Helper threads with odd numbers search one ply deeper than the main thread
+ * so the threads spread out over the tree, and what they find reaches the main thread through the table.
+ * The move played is always the main thread's.</p>
+ *
+ * <p>An instance searches one position at a time.</p>
+ */
+public class AlphaBetaAI implements ChessAI {
+    public static final int MAX_DEPTH = 64;
+    public static final int MATE_SCORE = 30000;
+    public static final int DEFAULT_HASH_MB = 16;
+    private static final int INFINITY = 32000;
+    private static final int MAX_PLY = MAX_DEPTH + 1;
+    private static final int BUDGET_CHECK_INTERVAL = 1024;
+    private static final int DELTA_MARGIN = 200;
+
+    /**
+     * The outcome of a search, or of one iteration of it.
+     *
+     * @param move The best move found.
+     * @param score The score of the move in centipawns for the side to move; mates score
+     *              {@link #MATE_SCORE} less the plies to mate.
+     * @param depth The depth of the last completed iteration.
+     * @param nodes The number of nodes searched, over all iterations and threads.
+     * @param timeMillis The time spent searching, in milliseconds.
+     * @param principalVariation The expected line, starting with {@code move}.
+     */
+    public record SearchResult(Move move, int score, int depth, long nodes, long timeMillis, List<Move> principalVariation) {
+        public long nodesPerSecond() {
+            return timeMillis == 0 ? nodes * 1000 : nodes * 1000 / timeMillis;
+        }
+
+        public boolean isMate() {
+            return Math.abs(score) >= MATE_SCORE - MAX_PLY;
+        }
+    }
+
+    private final int maxDepth;
+    private final long timeLimitMillis;
+    private final long nodeLimit;
+    private final int threads;
+    private final TranspositionTable transpositionTable;
+    private Consumer<SearchResult> listener;
+    private SearchResult lastResult;
+    private int orderingHeuristics = MoveOrdering.ALL;
+    private MoveOrdering[] orderings;
+
+    // Shared Search State
+    private final AtomicLong sharedNodes = new AtomicLong();
+    private volatile boolean stopped;
+    private volatile boolean canStop;
+    private long deadline;
+
+    /**
+     * Creates an AI that thinks for about a second per move.
+     */
+    public AlphaBetaAI() {
+        this(MAX_DEPTH, 1000, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates an AI that searches to a fixed depth, however long it takes.
+     */
+    public AlphaBetaAI(int maxDepth) {
+        this(maxDepth, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public AlphaBetaAI(int maxDepth, long timeLimitMillis, long nodeLimit) {
+        this(maxDepth, timeLimitMillis, nodeLimit, 1);
+    }
+
+    public AlphaBetaAI(int maxDepth, long timeLimitMillis, long nodeLimit, int threads) {
+        this(maxDepth, timeLimitMillis, nodeLimit, threads, new TranspositionTable(DEFAULT_HASH_MB));
+    }
+
+    /**
+     * Creates an AI with a search budget. The search stops at whichever limit it reaches first.
+     *
+     * @param maxDepth The deepest iteration, from 1 to {@link #MAX_DEPTH}.
+     * @param timeLimitMillis The time to search for, in milliseconds.
+     * @param nodeLimit The number of nodes to search, over all threads.
+     * @param threads The number of threads to search with.
+     * @param transpositionTable The table to keep searched positions in, which may be shared with other AIs
+     *                           that do not search at the same time.
+     */
+    public AlphaBetaAI(int maxDepth, long timeLimitMillis, long nodeLimit, int threads, TranspositionTable transpositionTable) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Invalid depth: " + maxDepth + ". Depth must be between 1 and " + MAX_DEPTH + ".");
+        }
+        if (timeLimitMillis <= 0 || nodeLimit <= 0) {
+            throw new IllegalArgumentException("Invalid budget: time and node limits must be positive.");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid thread count: " + threads + ". At least one thread is needed.");
+        }
+        this.maxDepth = maxDepth;
+        this.timeLimitMillis = timeLimitMillis;
+        this.nodeLimit = nodeLimit;
+        this.threads = threads;
+        this.transpositionTable = transpositionTable;
+    }
+
+    public Move getMove(ChessGame chessGame) {
+        return search(chessGame).move();
+    }
+
+    /**
+     * Searches the game's current position. The game is not changed.
+     *
+     * @param chessGame The game to search.
+     * @return The best move, with its score, depth and node count.
+     * @throws IllegalStateException If the side to move has no legal moves.
+     */
+    public SearchResult search(ChessGame chessGame) {
+        long startTime = System.nanoTime();
+
+        // No moves available
+        MoveList rootMoves = new MoveList();
+        chessGame.generateLegalMoves(rootMoves);
+        if (rootMoves.isEmpty()) {
+            throw new IllegalStateException("Error: No Moves Available");
+        }
+
+        // Setup
+        transpositionTable.newSearch();
+        sharedNodes.set(0);
+        deadline = timeLimitMillis == Long.MAX_VALUE ? Long.MAX_VALUE : startTime + timeLimitMillis * 1_000_000;
+        stopped = false;
+        canStop = false;
+        long[] history = chessGame.getReversiblePositionKeys();
+        if (orderings == null) {
+            orderings = new MoveOrdering[threads];
+            for (int id = 0; id < threads; id++) {
+                orderings[id] = new MoveOrdering(MAX_PLY, orderingHeuristics);
+            }
+        }
+        Worker[] workers = new Worker[threads];
+        for (int id = 0; id < threads; id++) {
+            orderings[id].newSearch();
+            workers[id] = new Worker(id, chessGame, history, startTime, orderings[id]);
+        }
+
+        // Helpers
+        Thread[] helpers = new Thread[threads - 1];
+        for (int id = 1; id < threads; id++) {
+            helpers[id - 1] = new Thread(workers[id]::iterate, "AlphaBetaAI-" + id);
+            helpers[id - 1].setDaemon(true);
+            helpers[id - 1].start();
+        }
+
+        // Main thread, then stop the helpers
+        workers[0].iterate();
+        stopped = true;
+        for (Thread helper : helpers) {
+            try {
+                helper.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Report the nodes of every thread and unfinished iteration too
+        long nodes = 0;
+        for (Worker worker : workers) {
+            nodes += worker.nodes;
+        }
+        SearchResult result = workers[0].result;
+        long timeMillis = (System.nanoTime() - startTime) / 1_000_000;
+        lastResult = new SearchResult(result.move(), result.score(), result.depth(), nodes, timeMillis, result.principalVariation());
+        return lastResult;
+    }
+
+    private boolean isOverBudget() {
+        return sharedNodes.get() >= nodeLimit || System.nanoTime() >= deadline;
+    }
+
+    // Mate scores are stored relative to the position rather than the root
+    private static int toTableScore(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) { return score + ply; }
+        if (score <= -MATE_SCORE + MAX_PLY) { return score - ply; }
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) { return score - ply; }
+        if (score <= -MATE_SCORE + MAX_PLY) { return score + ply; }
+        return score;
+    }
+
+    private static List<Move> toMoves(int[] packedMoves) {
+        List<Move> moves = new ArrayList<>(packedMoves.length);
+        for (int move : packedMoves) {
+            moves.add(PackedMove.toMove(move));
+        }
+        return moves;
+    }
+
+    /**
+     * One thread of the search, with its own board and per-ply state. Worker 0 is the main thread.
+     */
+    private class Worker {
+        private final int id;
+        private final Board board;
+        private final Color turn;
+        private final int halfMoveClock;
+        private final long startTime;
+        private final MoveOrdering ordering;
+        private final MoveList[] moveLists = new MoveList[MAX_PLY];
+        private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+        private final int[] pvLength = new int[MAX_PLY];
+        private final int[] line = new int[MAX_PLY];
+        private int[] previousPv = new int[0];
+        private final long[] keys;
+        private final int rootKeyIndex;
+        private long nodes;
+        private SearchResult result;
+
+        private Worker(int id, ChessGame chessGame, long[] history, long startTime, MoveOrdering ordering) {
+            this.id = id;
+            this.board = chessGame.board.getDeepCopy();
+            this.turn = chessGame.getTurn();
+            this.halfMoveClock = chessGame.getHalfMoveClock();
+            this.startTime = startTime;
+            this.ordering = ordering;
+            for (int i = 0; i < MAX_PLY; i++) {
+                moveLists[i] = new MoveList();
+            }
+            this.keys = new long[history.length + MAX_PLY];
+            System.arraycopy(history, 0, keys, 0, history.length);
+            this.rootKeyIndex = history.length - 1;
+        }
+
+        private void iterate() {
+            for (int iteration = 1; iteration <= maxDepth; iteration++) {
+                // Odd helpers search a ply deeper
+                int depth = Math.min(maxDepth, iteration + (id & 1));
+                int score = negamax(depth, 0, -INFINITY, INFINITY, turn, halfMoveClock);
+                if (stopped) { break; }
+
+                // Keep the completed iteration
+                previousPv = new int[pvLength[0]];
+                System.arraycopy(pvTable[0], 0, previousPv, 0, pvLength[0]);
+                if (id != 0) { continue; }
+                long timeMillis = (System.nanoTime() - startTime) / 1_000_000;
+                result = new SearchResult(PackedMove.toMove(previousPv[0]), score, depth, sharedNodes.get() + nodes % BUDGET_CHECK_INTERVAL,
+                        timeMillis, toMoves(previousPv));
+                canStop = true;
+                if (listener != null) {
+                    listener.accept(result);
+                }
+
+                // A forced mate will not get shorter by searching deeper
+                if (result.isMate() || isOverBudget()) { break; }
+            }
+        }
+
+        private int negamax(int depth, int ply, int alpha, int beta, Color turn, int halfMoveClock) {
+            pvLength[ply] = ply;
+            if (countNode()) { return 0; }
+
+            // Draws
+            long key = keys[rootKeyIndex + ply];
+            if (ply > 0 && isRepetition(ply, halfMoveClock)) {
+                return 0;
+            }
+
+            // Fifty-Move Rule, unless the last move mated
+            if (ply > 0 && halfMoveClock >= 100) {
+                MoveList moves = moveLists[ply];
+                moves.clear();
+                MoveGenerator.generateLegalMoves(board, turn, moves);
+                return moves.isEmpty() && board.isKingInCheck(turn) ? -MATE_SCORE + ply : 0;
+            }
+
+            // Leaf
+            if (depth == 0) {
+                return quiesce(ply, alpha, beta, turn, true);
+            }
+            if (ply == MAX_PLY - 1) {
+                return Evaluation.evaluate(board, turn);
+            }
+
+            // Transposition Table
+            long entry = transpositionTable.probe(key);
+            int hashMove = PackedMove.NONE;
+            if (entry != TranspositionTable.NO_ENTRY) {
+                hashMove = TranspositionTable.getMove(entry);
+                if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+                    int score = fromTableScore(TranspositionTable.getScore(entry), ply);
+                    int bound = TranspositionTable.getBound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                            || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+
+            // Checkmate or Stalemate
+            MoveList moves = moveLists[ply];
+            moves.clear();
+            MoveGenerator.generateLegalMoves(board, turn, moves);
+            if (moves.isEmpty()) {
+                return board.isKingInCheck(turn) ? -MATE_SCORE + ply : 0;
+            }
+
+            // Try the last iteration's line first, or else the table's move
+            int bestGuess = ply < previousPv.length && isOnPreviousPv(ply) ? previousPv[ply] : hashMove;
+            int previousMove = ply > 0 ? line[ply - 1] : PackedMove.NONE;
+            ordering.scoreMoves(board, turn, moves, ply, bestGuess, previousMove);
+
+            int originalAlpha = alpha;
+            int bestScore = -INFINITY;
+            int bestMove = PackedMove.NONE;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = ordering.nextMove(moves, ply, i);
+                boolean irreversible = PackedMove.isCapture(move) || board.getPieceAt(PackedMove.getFrom(move)).getType() == PieceType.PAWN;
+
+                line[ply] = move;
+                long undo = board.makeMove(move);
+                keys[rootKeyIndex + ply + 1] = board.getZobristKey(turn.inverse());
+                int score = -negamax(depth - 1, ply + 1, -beta, -alpha, turn.inverse(), irreversible ? 0 : halfMoveClock + 1);
+                board.unmakeMove(undo);
+                if (stopped) { return 0; }
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = move;
+                    if (score > alpha) {
+                        alpha = score;
+
+                        // Principal Variation
+                        pvTable[ply][ply] = move;
+                        System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+                        pvLength[ply] = pvLength[ply + 1];
+
+                        // Cutoff
+                        if (alpha >= beta) {
+                            if (!PackedMove.isCapture(move) && !PackedMove.isPromotion(move)) {
+                                ordering.recordCutoff(turn, moves, i, ply, depth, previousMove);
+                            }
+                            break;
+                        }
+                    }
+                }
+            }
+
+            // Store
+            int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                    : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+            transpositionTable.store(key, bestMove, toTableScore(bestScore, ply), depth, bound);
+            return bestScore;
+        }
+
+        // Searches captures and promotions only, or every move when in check at the horizon; the caller counts the node
+        private int quiesce(int ply, int alpha, int beta, Color turn, boolean horizon) {
+            boolean inCheck = board.isKingInCheck(turn);
+            boolean evasions = horizon && inCheck;
+
+            // Stand Pat
+            int standPat = Evaluation.evaluate(board, turn);
+            if (ply == MAX_PLY - 1) { return standPat; }
+            int bestScore = -INFINITY;
+            if (!evasions) {
+                if (standPat >= beta) { return standPat; }
+                alpha = Math.max(alpha, standPat);
+                bestScore = standPat;
+            }
+
+            // Checkmate or Stalemate
+            MoveList moves = moveLists[ply];
+            moves.clear();
+            MoveGenerator.generateLegalMoves(board, turn, moves);
+            if (moves.isEmpty()) {
+                return inCheck ? -MATE_SCORE + ply : 0;
+            }
+
+            if (evasions) {
+                ordering.scoreMoves(board, turn, moves, ply, PackedMove.NONE, line[ply - 1]);
+            } else {
+                ordering.scoreCaptures(board, moves, ply);
+            }
+            for (int i = 0; i < moves.size(); i++) {
+                int move = ordering.nextMove(moves, ply, i);
+                if (!evasions) {
+                    // Quiet moves and losing captures come last
+                    if ((!PackedMove.isCapture(move) && !PackedMove.isPromotion(move)) || ordering.isLosingCapture(ply, i)) { break; }
+
+                    // Delta Pruning
+                    if (!PackedMove.isPromotion(move)) {
+                        PieceType captured = PackedMove.isEnPassant(move) ? PieceType.PAWN : board.getPieceAt(PackedMove.getTo(move)).getType();
+                        if (standPat + Evaluation.getPieceValue(captured) + DELTA_MARGIN <= alpha) { continue; }
+                    }
+                }
+
+                line[ply] = move;
+                long undo = board.makeMove(move);
+                int score = countNode() ? 0 : -quiesce(ply + 1, -beta, -alpha, turn.inverse(), false);
+                board.unmakeMove(undo);
+                if (stopped) { return 0; }
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    if (score > alpha) {
+                        alpha = score;
+                        if (alpha >= beta) { break; }
+                    }
+                }
+            }
+            return bestScore;
+        }
+
+        // Counts a node, and checks the budget every so often; returns whether the search has stopped
+        private boolean countNode() {
+            if (++nodes % BUDGET_CHECK_INTERVAL == 0) {
+                sharedNodes.addAndGet(BUDGET_CHECK_INTERVAL);
+                if (canStop && isOverBudget()) {
+                    stopped = true;
+                }
+            }
+            return stopped;
+        }
+
+        // Whether the moves played so far are the start of the last iteration's line
+        private boolean isOnPreviousPv(int ply) {
+            for (int i = 0; i < ply; i++) {
+                if (line[i] != previousPv[i]) { return false; }
+            }
+            return true;
+        }
+
+        // Whether the position at ply occurred before with the same side to move, since the last irreversible move
+        private boolean isRepetition(int ply, int halfMoveClock) {
+            int index = rootKeyIndex + ply;
+            long key = keys[index];
+            int oldest = Math.max(0, index - halfMoveClock);
+            for (int i = index - 2; i >= oldest; i -= 2) {
+                if (keys[i] == key) { return true; }
+            }
+            return false;
+        }
+    }
+
+    // Getters
+    public int getMaxDepth() { return maxDepth; }
+    public long getTimeLimitMillis() { return timeLimitMillis; }
+    public long getNodeLimit() { return nodeLimit; }
+    public int getThreads() { return threads; }
+    public TranspositionTable getTranspositionTable() { return transpositionTable; }
+    public SearchResult getLastResult() { return lastResult; }
+
+    /**
+     * Clears the transposition table, so the next search does not reuse anything from earlier ones.
+     */
+    public void clearHash() { transpositionTable.clear(); }
+
+    /**
+     * Sets a listener told about each completed iteration, such as for printing the depth reached and
+     * the nodes per second as the search goes. It is called on the thread calling {@link #search}.
+     */
+    public void setListener(Consumer<SearchResult> listener) { this.listener = listener; }
+
+    /**
+     * Sets the move ordering heuristics to search with, {@link MoveOrdering#ALL} by default. Turning them off
+     * only makes the search slower, which is useful for measuring what each is worth.
+     *
+     * @param heuristics A combination of the {@link MoveOrdering} heuristic flags.
+     */
+    public void setMoveOrdering(int heuristics) {
+        this.orderingHeuristics = heuristics;
+        this.orderings = null;
+    }
+
+    public String toString() {
+        return "AlphaBetaAI";
+    }
+}
@@ -0,0 +1,117 @@
+package com.nathanholmberg.chess.engine.ai;
+
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
+import com.nathanholmberg.chess.engine.game.Board;
+
+/**
+ * A static evaluation of a position: material plus a piece-square table bonus for each piece.
+ *
+ * <p>Scores are in centipawns from the point of view of the side to move, as negamax wants them.
+ * The tables are written as the board is seen from white's side, rank 8 at the top, and are mirrored
+ * for black.</p>
+ */
+public class Evaluation {
+    private static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+    // Piece-square tables, indexed by PieceType, a8 first
+    private static final int[][] PIECE_SQUARE_TABLES = {
+            // Pawn
+            {
+                    0,   0,   0,   0,   0,   0,   0,   0,
+                    50,  50,  50,  50,  50,  50,  50,  50,
+                    10,  10,  20,  30,  30,  20,  10,  10,
+                    5,   5,  10,  25,  25,  10,   5,   5,
+                    0,   0,   0,  20,  20,   0,   0,   0,
+                    5,  -5, -10,   0,   0, -10,  -5,   5,
+                    5,  10,  10, -20, -20,  10,  10,   5,
+                    0,   0,   0,   0,   0,   0,   0,   0
+            },
+            // Knight
+            {
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20,   0,   0,   0,   0, -20, -40,
+                    -30,   0,  10,  15,  15,  10,   0, -30,
+                    -30,   5,  15,  20,  20,  15,   5, -30,
+                    -30,   0,  15,  20,  20,  15,   0, -30,
+                    -30,   5,  10,  15,  15,  10,   5, -30,
+                    -40, -20,   0,   5,   5,   0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50
+            },
+            // Bishop
+            {
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10,   0,   0,   0,   0,   0,   0, -10,
+                    -10,   0,   5,  10,  10,   5,   0, -10,
+                    -10,   5,   5,  10,  10,   5,   5, -10,
+                    -10,   0,  10,  10,  10,  10,   0, -10,
+                    -10,  10,  10,  10,  10,  10,  10, -10,
+                    -10,   5,   0,   0,   0,   0,   5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20
+            },
+            // Rook
+            {
+                    0,   0,   0,   0,   0,   0,   0,   0,
+                    5,  10,  10,  10,  10,  10,  10,   5,
+                    -5,   0,   0,   0,   0,   0,   0,  -5,
+                    -5,   0,   0,   0,   0,   0,   0,  -5,
+                    -5,   0,   0,   0,   0,   0,   0,  -5,
+                    -5,   0,   0,   0,   0,   0,   0,  -5,
+                    -5,   0,   0,   0,   0,   0,   0,  -5,
+                    0,   0,   0,   5,   5,   0,   0,   0
+            },
+            // Queen
+            {
+                    -20, -10, -10,  -5,  -5, -10, -10, -20,
+                    -10,   0,   0,   0,   0,   0,   0, -10,
+                    -10,   0,   5,   5,   5,   5,   0, -10,
+                    -5,   0,   5,   5,   5,   5,   0,  -5,
+                    0,   0,   5,   5,   5,   5,   0,  -5,
+                    -10,   5,   5,   5,   5,   5,   0, -10,
+                    -10,   0,   5,   0,   0,   0,   0, -10,
+                    -20, -10, -10,  -5,  -5, -10, -10, -20
+            },
+            // King, kept behind its pawns
+            {
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20,  20,   0,   0,   0,   0,  20,  20,
+                    20,  30,  10,   0,   0,  10,  30,  20
+            }
+    };
+
+    /**
+     * Evaluates the position for the side to move.
+     *
+     * @param board The position.
+     * @param turn The side to move.
+     * @return The score in centipawns, positive when {@code turn} is ahead.
+     */
+    public static int evaluate(Board board, Color turn) {
+        int score = 0;
+        for (PieceType type : PieceType.values()) {
+            int value = PIECE_VALUES[type.ordinal()];
+            int[] table = PIECE_SQUARE_TABLES[type.ordinal()];
+
+            // White reads the table mirrored, since it starts at a8
+            for (long pieces = board.getPieceBitboard(Color.WHITE, type); pieces != 0; pieces &= pieces - 1) {
+                score += value + table[Long.numberOfTrailingZeros(pieces) ^ 56];
+            }
+            for (long pieces = board.getPieceBitboard(Color.BLACK, type); pieces != 0; pieces &= pieces - 1) {
+                score -= value + table[Long.numberOfTrailingZeros(pieces)];
+            }
+        }
+        return turn == Color.WHITE ? score : -score;
+    }
+
+    /**
+     * Returns the material value of a piece type in centipawns. The king has no material value.
+     */
+    public static int getPieceValue(PieceType type) {
+        return PIECE_VALUES[type.ordinal()];
+    }
+}
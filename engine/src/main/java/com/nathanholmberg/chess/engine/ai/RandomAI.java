@@ -2,8 +2,6 @@ package com.nathanholmberg.chess.engine.ai;
 
 import com.nathanholmberg.chess.engine.game.ChessGame;
 import com.nathanholmberg.chess.engine.types.Move;
-import com.nathanholmberg.chess.engine.types.Position;
-import com.nathanholmberg.chess.engine.utils.MoveUtils;
 
 import java.util.List;
 import java.util.Random;
@@ -13,33 +11,19 @@ public class RandomAI implements ChessAI{
         // Random instance
         Random random = new Random();
 
-        // Get Initial Positions for Current Player
-        List<Position> initialPositionList = chessGame.board.getPiecePositionsByColor(chessGame.getTurn());
-
-        while (!initialPositionList.isEmpty()) {
-            // Select Random Initial Position
-            int randomInitialIndex = random.nextInt(initialPositionList.size());
-            Position initialPosition = initialPositionList.get(randomInitialIndex);
-
-            // Get Legal Moves for Initial Position
-            List<Position> finalPositionList = chessGame.getLegalMoves(initialPosition);
-
-            // If there are legal moves, pick one and return
-            if (!finalPositionList.isEmpty()) {
-                Position finalPosition = finalPositionList.get(random.nextInt(finalPositionList.size()));
-                Move move = new Move(initialPosition, finalPosition, '\0');
-                if (MoveUtils.causesPromotion(move, chessGame)) {
-                    move = new Move(initialPosition, finalPosition, 'Q');
-                }
-                return move;
-            }
-
-            // Remove position from list if no legal moves are found
-            initialPositionList.remove(randomInitialIndex);
-        }
+        // Get Legal Moves for Current Player
+        List<Move> legalMoves = chessGame.generateLegalMoves();
+
+        // Always promote to a queen
+        legalMoves.removeIf(move -> move.promotionPiece() != '\0' && move.promotionPiece() != 'Q');
 
         // No moves available
-        throw new IllegalStateException("Error: No Moves Available");
+        if (legalMoves.isEmpty()) {
+            throw new IllegalStateException("Error: No Moves Available");
+        }
+
+        // Pick one
+        return legalMoves.get(random.nextInt(legalMoves.size()));
     }
 
     public String toString() {
@@ -0,0 +1,245 @@
+package com.nathanholmberg.chess.engine.attacks;
+
+import com.nathanholmberg.chess.engine.enums.Color;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed attack bitboards for every piece type.
+ *
+ * <p>Squares are indexed from a1 (0) to h8 (63), as in the board's bitboards. Knight, king and pawn
+ * attacks do not depend on other pieces and are simple per-square tables. Rook and bishop attacks
+ * depend on the blockers along their rays, and are looked up with magic bitboards:</p>
+ * <ul>
+ *   <li>Only the squares on the rays that could block (the relevant mask, which skips the board edge)
+ *   are kept from the occupancy.</li>
+ *   <li>Multiplying those by a per-square magic number and keeping the top bits maps every blocker
+ *   arrangement to a unique index into a per-square attack table.</li>
+ * </ul>
+ * <p>The magic numbers are found when the class is loaded, by trying sparse random numbers from a
+ * fixed seed per rank until one maps every arrangement without a harmful collision, so the tables are always the same.</p>
+ */
+public class Attacks {
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_B = FILE_A << 1;
+    private static final long FILE_G = FILE_A << 6;
+    private static final long FILE_H = FILE_A << 7;
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    // Leaper Tables
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // Line Tables
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    // Magic Tables
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_ATTACKS = new long[64][];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_ATTACKS = new long[64][];
+
+    // Seeds for the magic number search, one per rank, picked so each rank's magics are found quickly
+    private static final long[] SEEDS = {728, 10316, 55013, 32803, 12281, 15100, 16645, 255};
+    private static long seed;
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            long bit = 1L << square;
+
+            // Knight
+            KNIGHT_ATTACKS[square] = ((bit << 17) & ~FILE_A) | ((bit << 15) & ~FILE_H)
+                    | ((bit << 10) & ~(FILE_A | FILE_B)) | ((bit << 6) & ~(FILE_G | FILE_H))
+                    | ((bit >>> 17) & ~FILE_H) | ((bit >>> 15) & ~FILE_A)
+                    | ((bit >>> 10) & ~(FILE_G | FILE_H)) | ((bit >>> 6) & ~(FILE_A | FILE_B));
+
+            // King
+            long sides = ((bit << 1) & ~FILE_A) | ((bit >>> 1) & ~FILE_H);
+            long row = bit | sides;
+            KING_ATTACKS[square] = sides | (row << 8) | (row >>> 8);
+
+            // Pawns
+            PAWN_ATTACKS[Color.WHITE.ordinal()][square] = ((bit << 7) & ~FILE_H) | ((bit << 9) & ~FILE_A);
+            PAWN_ATTACKS[Color.BLACK.ordinal()][square] = ((bit >>> 9) & ~FILE_H) | ((bit >>> 7) & ~FILE_A);
+        }
+
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                initLine(from, to);
+            }
+        }
+
+        for (int square = 0; square < 64; square++) {
+            initMagic(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_ATTACKS);
+            initMagic(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+        }
+    }
+
+    // Lookups
+    public static long knight(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long king(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Returns the squares a pawn of {@code color} on {@code square} attacks.
+     * Looked up with the other color, it gives the squares a pawn would attack {@code square} from.
+     */
+    public static long pawn(int square, Color color) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    public static long rook(int square, long occupied) {
+        return ROOK_ATTACKS[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishop(int square, long occupied) {
+        return BISHOP_ATTACKS[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * Returns the squares strictly between two squares on the same rank, file or diagonal,
+     * or an empty bitboard when they are not aligned.
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Returns every square on the full rank, file or diagonal through two aligned squares,
+     * or an empty bitboard when they are not aligned.
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    // Initialization
+    private static void initLine(int from, int to) {
+        int fileDelta = (to & 7) - (from & 7);
+        int rankDelta = (to >>> 3) - (from >>> 3);
+        if (from == to || (fileDelta != 0 && rankDelta != 0 && Math.abs(fileDelta) != Math.abs(rankDelta))) { return; }
+
+        int fileDirection = Integer.signum(fileDelta);
+        int rankDirection = Integer.signum(rankDelta);
+
+        // Between
+        int step = rankDirection * 8 + fileDirection;
+        for (int square = from + step; square != to; square += step) {
+            BETWEEN[from][to] |= 1L << square;
+        }
+
+        // Full Line
+        long squares = 1L << from;
+        for (int sign = -1; sign <= 1; sign += 2) {
+            int file = (from & 7) + sign * fileDirection;
+            int rank = (from >>> 3) + sign * rankDirection;
+            while (file >= 0 && file < 8 && rank >= 0 && rank < 8) {
+                squares |= 1L << (rank * 8 + file);
+                file += sign * fileDirection;
+                rank += sign * rankDirection;
+            }
+        }
+        LINE[from][to] = squares;
+    }
+
+    private static void initMagic(int square, int[][] directions, long[] masks, long[] magics, int[] shifts, long[][] tables) {
+        long mask = relevantMask(square, directions);
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+
+        // Every blocker arrangement on the mask, with its attacks
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+        long occupied = 0L;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = occupied;
+            attacks[i] = slidingAttacks(square, occupied, directions);
+            occupied = (occupied - mask) & mask;
+        }
+
+        // Try sparse random numbers until one indexes every arrangement consistently
+        long[] table = new long[size];
+        seed = SEEDS[square >>> 3];
+        while (true) {
+            long magic = nextRandom() & nextRandom() & nextRandom();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) { continue; }
+
+            Arrays.fill(table, 0L);
+            boolean found = true;
+            for (int i = 0; i < size && found; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                // A slider always attacks at least one square, so 0 marks an unused entry
+                if (table[index] == 0L) {
+                    table[index] = attacks[i];
+                } else if (table[index] != attacks[i]) {
+                    found = false;
+                }
+            }
+
+            if (found) {
+                masks[square] = mask;
+                magics[square] = magic;
+                shifts[square] = 64 - bits;
+                tables[square] = table;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the squares on the rays from {@code square} whose occupancy changes the attacks.
+     * The last square of each ray is left out, since a piece there blocks nothing further.
+     */
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] direction : directions) {
+            int file = (square & 7) + direction[0];
+            int rank = (square >>> 3) + direction[1];
+            while (file + direction[0] >= 0 && file + direction[0] < 8 && rank + direction[1] >= 0 && rank + direction[1] < 8) {
+                mask |= 1L << (rank * 8 + file);
+                file += direction[0];
+                rank += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int file = (square & 7) + direction[0];
+            int rank = (square >>> 3) + direction[1];
+            while (file >= 0 && file < 8 && rank >= 0 && rank < 8) {
+                long bit = 1L << (rank * 8 + file);
+                attacks |= bit;
+                if ((occupied & bit) != 0) { break; }
+                file += direction[0];
+                rank += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    // Xorshift*, so the magic numbers come out the same on every run
+    private static long nextRandom() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 2685821657736338717L;
+    }
+}
@@ -0,0 +1,28 @@
+package com.nathanholmberg.chess.engine.enums;
+
+public enum PieceType {
+    PAWN('P'),
+    KNIGHT('N'),
+    BISHOP('B'),
+    ROOK('R'),
+    QUEEN('Q'),
+    KING('K');
+
+    private final char symbol;
+
+    PieceType(char symbol) {
+        this.symbol = symbol;
+    }
+
+    // Getters
+    public char toChar() { return symbol; }
+
+    public static PieceType fromChar(char symbol) {
+        for (PieceType type : values()) {
+            if (type.symbol == Character.toUpperCase(symbol)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Invalid Piece Type: " + symbol);
+    }
+}
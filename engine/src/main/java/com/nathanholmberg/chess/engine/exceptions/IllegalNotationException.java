@@ -1,7 +1,19 @@
 package com.nathanholmberg.chess.engine.exceptions;
 
 public class IllegalNotationException extends RuntimeException {
+    private final int errorIndex;
+
     public IllegalNotationException(String message) {
+        this(message, -1);
+    }
+
+    public IllegalNotationException(String message, int errorIndex) {
         super(message);
+        this.errorIndex = errorIndex;
     }
+
+    /**
+     * Returns the index of the character in the notation where the error was found, or -1 when unknown.
+     */
+    public int getErrorIndex() { return errorIndex; }
 }
@@ -1,20 +1,67 @@
 package com.nathanholmberg.chess.engine.game;
 
+import com.nathanholmberg.chess.engine.attacks.Attacks;
 import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
 import com.nathanholmberg.chess.engine.exceptions.IllegalMoveException;
 import com.nathanholmberg.chess.engine.pieces.*;
 import com.nathanholmberg.chess.engine.types.CastlingRights;
 import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.PackedMove;
 import com.nathanholmberg.chess.engine.types.Position;
+import com.nathanholmberg.chess.engine.utils.PieceUtils;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
 
-public class  Board {
-    private final Piece[][] board = new Piece[8][8];
+/**
+ * The chess board, stored as bitboards.
+ *
+ * <p>Each square is a bit in a {@code long}, indexed by {@link Position#index()} (a1 = 0, h8 = 63).
+ * The board keeps one bitboard per piece type per color, one occupancy mask per color and one
+ * for all pieces. A 64-entry array of {@link Piece} objects is kept alongside the bitboards so
+ * {@link #getPieceAt(Position)} stays a single lookup.</p>
+ */
+public class Board {
+    private final long[] pieceBitboards = new long[12];
+    private final long[] colorBitboards = new long[2];
+    private long occupiedBitboard = 0L;
+    private final Piece[] squares = new Piece[64];
+    private final int[] kingSquares = {NO_SQUARE, NO_SQUARE};
+    private long pieceKey = 0L;
+
+    // Read-only views over each color's occupancy
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final List<Position>[] piecePositions = new List[] {
+            new OccupancyView<>(Color.WHITE, Position::of), new OccupancyView<>(Color.BLACK, Position::of)
+    };
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final List<Piece>[] pieces = new List[] {
+            new OccupancyView<>(Color.WHITE, square -> squares[square]), new OccupancyView<>(Color.BLACK, square -> squares[square])
+    };
     private Position enPassantPosition = null;
     private CastlingRights castlingRights = new CastlingRights();
 
+    // Undo Record Layout: packed move (16) | captured piece (4) | castling rights (4) | en passant square (7)
+    private static final int UNDO_CAPTURED_SHIFT = 16;
+    private static final int UNDO_CASTLING_SHIFT = 20;
+    private static final int UNDO_EN_PASSANT_SHIFT = 24;
+    private static final int NO_SQUARE = 64;
+
+    // Shared piece instances by bitboard index, used to restore captured pieces
+    private static final Piece[] PIECES = new Piece[12];
+    static {
+        for (Color color : Color.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[bitboardIndex(color, type)] = PieceUtils.getPiece(type, color);
+            }
+        }
+    }
+
     public Board() {
         this.setup();
     }
@@ -26,11 +73,12 @@ public class  Board {
     }
 
     public void clear() {
-        for (int file = 0; file < 8; file++) {
-            for (int rank = 0; rank < 8; rank++) {
-                board[file][rank] = null;
-            }
-        }
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorBitboards, 0L);
+        occupiedBitboard = 0L;
+        Arrays.fill(squares, null);
+        Arrays.fill(kingSquares, NO_SQUARE);
+        pieceKey = 0L;
     }
 
     public void setup() {
@@ -38,42 +86,37 @@ public class  Board {
         this.clear();
 
         // White Pieces
-        this.setPieceAt(new Position(0, 0), new Rook(Color.WHITE));
-        this.setPieceAt(new Position(1, 0), new Knight(Color.WHITE));
-        this.setPieceAt(new Position(2, 0), new Bishop(Color.WHITE));
-        this.setPieceAt(new Position(3, 0), new Queen(Color.WHITE));
-        this.setPieceAt(new Position(4, 0), new King(Color.WHITE));
-        this.setPieceAt(new Position(5, 0), new Bishop(Color.WHITE));
-        this.setPieceAt(new Position(6, 0), new Knight(Color.WHITE));
-        this.setPieceAt(new Position(7, 0), new Rook(Color.WHITE));
+        this.setPieceAt(Position.of(0, 0), PieceUtils.getPiece(PieceType.ROOK, Color.WHITE));
+        this.setPieceAt(Position.of(1, 0), PieceUtils.getPiece(PieceType.KNIGHT, Color.WHITE));
+        this.setPieceAt(Position.of(2, 0), PieceUtils.getPiece(PieceType.BISHOP, Color.WHITE));
+        this.setPieceAt(Position.of(3, 0), PieceUtils.getPiece(PieceType.QUEEN, Color.WHITE));
+        this.setPieceAt(Position.of(4, 0), PieceUtils.getPiece(PieceType.KING, Color.WHITE));
+        this.setPieceAt(Position.of(5, 0), PieceUtils.getPiece(PieceType.BISHOP, Color.WHITE));
+        this.setPieceAt(Position.of(6, 0), PieceUtils.getPiece(PieceType.KNIGHT, Color.WHITE));
+        this.setPieceAt(Position.of(7, 0), PieceUtils.getPiece(PieceType.ROOK, Color.WHITE));
         for (int file = 0; file < 8; file++) {
-            this.setPieceAt(new Position(file, 1), new Pawn(Color.WHITE));
+            this.setPieceAt(Position.of(file, 1), PieceUtils.getPiece(PieceType.PAWN, Color.WHITE));
         }
 
         // Black Pieces
-        this.setPieceAt(new Position(0, 7), new Rook(Color.BLACK));
-        this.setPieceAt(new Position(1, 7), new Knight(Color.BLACK));
-        this.setPieceAt(new Position(2, 7), new Bishop(Color.BLACK));
-        this.setPieceAt(new Position(3, 7), new Queen(Color.BLACK));
-        this.setPieceAt(new Position(4, 7), new King(Color.BLACK));
-        this.setPieceAt(new Position(5, 7), new Bishop(Color.BLACK));
-        this.setPieceAt(new Position(6, 7), new Knight(Color.BLACK));
-        this.setPieceAt(new Position(7, 7), new Rook(Color.BLACK));
+        this.setPieceAt(Position.of(0, 7), PieceUtils.getPiece(PieceType.ROOK, Color.BLACK));
+        this.setPieceAt(Position.of(1, 7), PieceUtils.getPiece(PieceType.KNIGHT, Color.BLACK));
+        this.setPieceAt(Position.of(2, 7), PieceUtils.getPiece(PieceType.BISHOP, Color.BLACK));
+        this.setPieceAt(Position.of(3, 7), PieceUtils.getPiece(PieceType.QUEEN, Color.BLACK));
+        this.setPieceAt(Position.of(4, 7), PieceUtils.getPiece(PieceType.KING, Color.BLACK));
+        this.setPieceAt(Position.of(5, 7), PieceUtils.getPiece(PieceType.BISHOP, Color.BLACK));
+        this.setPieceAt(Position.of(6, 7), PieceUtils.getPiece(PieceType.KNIGHT, Color.BLACK));
+        this.setPieceAt(Position.of(7, 7), PieceUtils.getPiece(PieceType.ROOK, Color.BLACK));
         for (int file = 0; file < 8; file++) {
-            this.setPieceAt(new Position(file, 6), new Pawn(Color.BLACK));
+            this.setPieceAt(Position.of(file, 6), PieceUtils.getPiece(PieceType.PAWN, Color.BLACK));
         }
     }
 
     public Board getDeepCopy() {
         Board copy = Board.getEmptyBoard();
-        for (int file = 0; file < 8; file++) {
-            for (int rank = 0; rank < 8; rank++) {
-                Position position = new Position(file, rank);
-                Piece piece = getPieceAt(position);
-                if (piece != null) {
-                    copy.setPieceAt(position, piece.getDeepCopy());
-                }
-            }
+        for (long pieces = occupiedBitboard; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            copy.setPieceAt(square, squares[square]);
         }
         copy.setEnPassantPosition(getEnPassantPosition());
         copy.setCastlingRights(getCastlingRights().getDeepCopy());
@@ -81,104 +124,318 @@ public class  Board {
     }
 
     public Position getKingPosition(Color color) {
-        for (int file = 0; file < 8; file++) {
-            for (int rank = 0; rank < 8; rank++) {
-                Position currentPosition = new Position(file, rank);
-                Piece piece = this.getPieceAt(currentPosition);
-                if (piece instanceof King && piece.getColor() == color) {
-                    return currentPosition;
-                }
+        return toPosition(getKingSquare(color));
+    }
+
+    /**
+     * Returns the square index of the king of {@code color}. The king squares are kept up to date
+     * by {@link #setPieceAt(int, Piece)}, so this is a single array read.
+     *
+     * @param color The color of the king.
+     * @return The square index (0-63) of the king.
+     */
+    public int getKingSquare(Color color) {
+        int square = kingSquares[color.ordinal()];
+        if (square == NO_SQUARE) {
+            throw new RuntimeException("Game state is invalid: King of color " + color + " is missing.");
+        }
+        return square;
+    }
+
+    /**
+     * Returns the Zobrist key of the board, without the side to move (see {@link ChessGame#getZobristKey()}).
+     * The piece part of the key is updated by {@link #setPieceAt(int, Piece)} as pieces come and go, so
+     * making or unmaking a move updates it for free. Castling rights and the en passant square can be
+     * replaced from outside, so their keys are folded in here, which is a few table reads.
+     * The en passant file only counts when a pawn is next to the pawn that just moved, so positions
+     * that only differ by an unusable en passant square share a key.
+     *
+     * @return The 64-bit key of the position.
+     */
+    public long getZobristKey() {
+        long key = pieceKey ^ Zobrist.castling(castlingRights.getBits());
+        if (enPassantPosition != null) {
+            int square = enPassantPosition.index();
+            // A pawn that just moved to rank 4 is captured by black pawns, to rank 5 by white pawns
+            Color capturer = square >>> 3 == 2 ? Color.BLACK : Color.WHITE;
+            if ((Attacks.pawn(square, capturer.inverse()) & getPieceBitboard(capturer, PieceType.PAWN)) != 0) {
+                key ^= Zobrist.enPassant(square);
             }
         }
-        throw new RuntimeException("Game state is invalid: King of color " + color + " is missing.");
+        return key;
+    }
+
+    /**
+     * Returns the Zobrist key of the board with the side to move added, the same key
+     * {@link ChessGame#getZobristKey()} gives. Searches that play moves straight on the board use this.
+     *
+     * @param turn The side to move.
+     * @return The 64-bit key of the position.
+     */
+    public long getZobristKey(Color turn) {
+        return turn == Color.BLACK ? getZobristKey() ^ Zobrist.BLACK_TO_MOVE : getZobristKey();
     }
 
     public King getKing(Color color) {
-        Position kingPosition = getKingPosition(color);
-        return (King) getPieceAt(kingPosition);
+        return (King) squares[getKingSquare(color)];
     }
 
     public boolean isKingInCheck(Color color) {
-        Position kingPosition = getKingPosition(color);
-        return getKing(color).isChecked(kingPosition, this);
+        return isSquareAttacked(getKingSquare(color), color.inverse());
     }
 
-    public List<Position> getPiecePositionsByColor(Color color) {
-        List<Position> pieces = new ArrayList<>();
+    /**
+     * Returns whether {@code square} is attacked by any piece of {@code byColor}.
+     * Instead of asking every enemy piece whether it can reach the square, this looks outward from the
+     * square itself: a knight, king or pawn attack pattern placed on the square, or a rook or bishop ray
+     * cast from it up to the first blocker, lands on the attackers.
+     *
+     * @param square The square index (0-63) to test.
+     * @param byColor The attacking side.
+     * @return `true` if at least one piece of {@code byColor} attacks the square; otherwise, `false`.
+     */
+    public boolean isSquareAttacked(int square, Color byColor) {
+        return getAttackers(square, byColor, occupiedBitboard) != 0;
+    }
 
-        // Loop through board
-        for (int file = 0; file < 8; file++) {
-            for (int rank = 0; rank < 8; rank++) {
-                Position currentPosition = new Position(file, rank);
-                Piece currentPiece = getPieceAt(currentPosition);
-                if (currentPiece == null) { continue; }
-                if (currentPiece.getColor() ==  color) {
-                    pieces.add(currentPosition);
-                }
-            }
-        }
-        return pieces;
+    public boolean isSquareAttacked(Position position, Color byColor) {
+        return isSquareAttacked(position.index(), byColor);
     }
 
-    public List<Piece> getPiecesByColor(Color color) {
-        List<Piece> pieces = new ArrayList<>();
+    /**
+     * Returns every piece of {@code byColor} attacking {@code square}, with sliding pieces blocked by
+     * {@code occupied} rather than the board's own occupancy, so callers can look at the board with
+     * pieces lifted off or added.
+     *
+     * @param square The square index (0-63) to test.
+     * @param byColor The attacking side.
+     * @param occupied The occupancy that blocks sliding pieces.
+     * @return A bitboard of the attacking pieces.
+     */
+    public long getAttackers(int square, Color byColor, long occupied) {
+        long queens = getPieceBitboard(byColor, PieceType.QUEEN);
+        return (Attacks.pawn(square, byColor.inverse()) & getPieceBitboard(byColor, PieceType.PAWN))
+                | (Attacks.knight(square) & getPieceBitboard(byColor, PieceType.KNIGHT))
+                | (Attacks.king(square) & getPieceBitboard(byColor, PieceType.KING))
+                | (Attacks.bishop(square, occupied) & (getPieceBitboard(byColor, PieceType.BISHOP) | queens))
+                | (Attacks.rook(square, occupied) & (getPieceBitboard(byColor, PieceType.ROOK) | queens));
+    }
 
-        // Loop through board
-        for (int file = 0; file < 8; file++) {
-            for (int rank = 0; rank < 8; rank++) {
-                Position currentPosition = new Position(file, rank);
-                Piece currentPiece = getPieceAt(currentPosition);
-                if (currentPiece == null) { continue; }
-                if (currentPiece.getColor() ==  color) {
-                    pieces.add(currentPiece);
-                }
-            }
-        }
-        return pieces;
+    /**
+     * Returns the positions of every piece of {@code color}, from a1 to h8.
+     * The list is a read-only view over the color's occupancy, so nothing is copied per call.
+     * An iteration walks the pieces as they stood when it began, so moves may be made and
+     * unmade while iterating.
+     *
+     * @param color The color of the pieces.
+     * @return A live, read-only list of positions.
+     */
+    public List<Position> getPiecePositionsByColor(Color color) {
+        return piecePositions[color.ordinal()];
+    }
+
+    /**
+     * Returns every piece of {@code color}, in the same order as {@link #getPiecePositionsByColor(Color)}.
+     * Like it, the list is a read-only view over the color's occupancy.
+     *
+     * @param color The color of the pieces.
+     * @return A live, read-only list of pieces.
+     */
+    public List<Piece> getPiecesByColor(Color color) {
+        return pieces[color.ordinal()];
     }
 
     public void executeMove(Move move) {
-        // Collapse Move Obj
-        Position initialPosition = move.initialPosition();
-        Position finalPosition = move.finalPosition();
-        Piece pieceToMove = getPieceAt(initialPosition);
+        makeMove(move);
+    }
+
+    /**
+     * Plays a move on the board in place and returns what is needed to take it back.
+     * This handles the special moves itself: the en passant capture, the rook hop when castling,
+     * promotion, updating the en passant square and clearing castling rights.
+     * The move is not validated beyond having a piece to move and a promotion piece when a pawn
+     * reaches the last rank; both are checked before the board is touched.
+     *
+     * @param move The move to play.
+     * @return A compact undo record to hand to {@link #unmakeMove(long)}.
+     */
+    public long makeMove(Move move) {
+        Piece pieceToMove = getPieceAt(move.initialPosition());
 
         // No Piece To Move
         if (pieceToMove == null) {
             throw new IllegalMoveException("Illegal Move: No piece at the initial position to move.");
         }
 
-        // Execute Piece To Move Weirdness
-        pieceToMove.specialMoveExecution(move, this);
+        // Promotion needs a piece
+        int finalRank = move.finalPosition().rank();
+        if (pieceToMove.getType() == PieceType.PAWN && (finalRank == 0 || finalRank == 7) && move.promotionPiece() == '\0') {
+            throw new IllegalMoveException("Illegal Move: Promotion piece must be specified.");
+        }
+
+        return makeMove(PackedMove.fromMove(move, this));
+    }
+
+    /**
+     * Plays a {@link PackedMove packed move} on the board in place, trusting its flags.
+     *
+     * @param move The packed move to play.
+     * @return A compact undo record to hand to {@link #unmakeMove(long)}.
+     */
+    public long makeMove(int move) {
+        // Collapse Move
+        int from = PackedMove.getFrom(move);
+        int to = PackedMove.getTo(move);
+        int flags = PackedMove.getFlags(move);
+        Piece pieceToMove = squares[from];
+
+        // Record Undo
+        int captureSquare = flags == PackedMove.EN_PASSANT ? (from & ~7) | (to & 7) : to;
+        Piece capturedPiece = squares[captureSquare];
+        long undo = (move & 0xFFFF)
+                | (long) (capturedPiece == null ? 0 : 1 + bitboardIndex(capturedPiece.getColor(), capturedPiece.getType())) << UNDO_CAPTURED_SHIFT
+                | (long) castlingRights.getBits() << UNDO_CASTLING_SHIFT
+                | (long) (enPassantPosition == null ? NO_SQUARE : enPassantPosition.index()) << UNDO_EN_PASSANT_SHIFT;
 
         // Update Board
-        pieceToMove = getPieceAt(initialPosition);
-        setPieceAt(initialPosition, null);
-        setPieceAt(finalPosition, pieceToMove);
+        if (capturedPiece != null) {
+            setPieceAt(captureSquare, null);
+        }
+        setPieceAt(from, null);
+        if (PackedMove.isPromotion(move)) {
+            setPieceAt(to, PieceUtils.getPiece(PackedMove.getPromotionType(move), pieceToMove.getColor()));
+        } else {
+            setPieceAt(to, pieceToMove);
+        }
+
+        // Hop Rook
+        if (flags == PackedMove.KING_CASTLE || flags == PackedMove.QUEEN_CASTLE) {
+            int rookFrom = flags == PackedMove.KING_CASTLE ? from + 3 : from - 4;
+            int rookTo = flags == PackedMove.KING_CASTLE ? from + 1 : from - 1;
+            setPieceAt(rookTo, squares[rookFrom]);
+            setPieceAt(rookFrom, null);
+        }
+
+        // Update En Passant Position
+        enPassantPosition = flags == PackedMove.DOUBLE_PAWN_PUSH ? toPosition((from + to) / 2) : null;
 
         // Update Castling Rights
-        castlingRights.correctRights(this);
+        castlingRights.update(from, to);
+        return undo;
+    }
+
+    /**
+     * Returns the {@link PackedMove packed move} an undo record was made for.
+     *
+     * @param undo The undo record returned by {@code makeMove}.
+     * @return The packed move.
+     */
+    public static int getUndoMove(long undo) {
+        return (int) (undo & 0xFFFF);
+    }
+
+    /**
+     * Takes back a move played with {@link #makeMove(Move)} or {@link #makeMove(int)}, restoring the
+     * moved and captured pieces, the castling rights and the en passant square.
+     * Undo records must be taken back in the reverse order they were made.
+     *
+     * @param undo The undo record returned by {@code makeMove}.
+     */
+    public void unmakeMove(long undo) {
+        // Collapse Undo Record
+        int move = (int) (undo & 0xFFFF);
+        int from = PackedMove.getFrom(move);
+        int to = PackedMove.getTo(move);
+        int flags = PackedMove.getFlags(move);
+        int capturedCode = (int) (undo >>> UNDO_CAPTURED_SHIFT) & 0xF;
+        int enPassantSquare = (int) (undo >>> UNDO_EN_PASSANT_SHIFT) & 0x7F;
+        Piece movedPiece = squares[to];
+
+        // Un-Promote
+        if (PackedMove.isPromotion(move)) {
+            movedPiece = PieceUtils.getPiece(PieceType.PAWN, movedPiece.getColor());
+        }
+
+        // Restore Pieces
+        setPieceAt(to, null);
+        setPieceAt(from, movedPiece);
+        if (capturedCode != 0) {
+            int captureSquare = flags == PackedMove.EN_PASSANT ? (from & ~7) | (to & 7) : to;
+            setPieceAt(captureSquare, PIECES[capturedCode - 1]);
+        }
+
+        // Hop Rook Back
+        if (flags == PackedMove.KING_CASTLE || flags == PackedMove.QUEEN_CASTLE) {
+            int rookFrom = flags == PackedMove.KING_CASTLE ? from + 3 : from - 4;
+            int rookTo = flags == PackedMove.KING_CASTLE ? from + 1 : from - 1;
+            setPieceAt(rookFrom, squares[rookTo]);
+            setPieceAt(rookTo, null);
+        }
+
+        // Restore State
+        castlingRights.setBits((int) (undo >>> UNDO_CASTLING_SHIFT) & 0xF);
+        enPassantPosition = enPassantSquare == NO_SQUARE ? null : toPosition(enPassantSquare);
     }
 
     // Getters
-    public Piece getPieceAt(Position position) { return board[position.file()][position.rank()]; }
+    public Piece getPieceAt(Position position) { return squares[position.index()]; }
+    public Piece getPieceAt(int square) { return squares[square]; }
+    public long getPieceBitboard(Color color, PieceType type) { return pieceBitboards[bitboardIndex(color, type)]; }
+    public long getOccupancy(Color color) { return colorBitboards[color.ordinal()]; }
+    public long getOccupancy() { return occupiedBitboard; }
     public Position getEnPassantPosition() { return enPassantPosition; }
     public CastlingRights getCastlingRights() { return castlingRights; }
 
     // Setters
-    public void setPieceAt(Position position, Piece piece) { board[position.file()][position.rank()] = piece; }
+    public void setPieceAt(Position position, Piece piece) { setPieceAt(position.index(), piece); }
+    public void setPieceAt(int square, Piece piece) {
+        long bit = 1L << square;
+
+        // Remove Old Piece
+        Piece oldPiece = squares[square];
+        if (oldPiece != null) {
+            pieceBitboards[bitboardIndex(oldPiece.getColor(), oldPiece.getType())] &= ~bit;
+            colorBitboards[oldPiece.getColor().ordinal()] &= ~bit;
+            occupiedBitboard &= ~bit;
+            pieceKey ^= Zobrist.piece(bitboardIndex(oldPiece.getColor(), oldPiece.getType()), square);
+            if (oldPiece.getType() == PieceType.KING && kingSquares[oldPiece.getColor().ordinal()] == square) {
+                long kings = pieceBitboards[bitboardIndex(oldPiece.getColor(), PieceType.KING)];
+                kingSquares[oldPiece.getColor().ordinal()] = kings == 0 ? NO_SQUARE : Long.numberOfTrailingZeros(kings);
+            }
+        }
+
+        // Place New Piece
+        squares[square] = piece;
+        if (piece != null) {
+            pieceBitboards[bitboardIndex(piece.getColor(), piece.getType())] |= bit;
+            colorBitboards[piece.getColor().ordinal()] |= bit;
+            occupiedBitboard |= bit;
+            pieceKey ^= Zobrist.piece(bitboardIndex(piece.getColor(), piece.getType()), square);
+            if (piece.getType() == PieceType.KING) {
+                kingSquares[piece.getColor().ordinal()] = square;
+            }
+        }
+    }
     public void setEnPassantPosition(Position enPassantPosition) { this.enPassantPosition = enPassantPosition; }
     public void setCastlingRights(CastlingRights castlingRights) { this.castlingRights = castlingRights; }
 
+    private static int bitboardIndex(Color color, PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    private static Position toPosition(int square) {
+        return Position.of(square);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         for (int rank = 7; rank >= 0; rank--) {
             for (int file = 0; file < 8; file++) {
-                if (board[file][rank] == null) {
+                Piece piece = squares[rank * 8 + file];
+                if (piece == null) {
                     sb.append(".");
                 } else {
-                    Piece piece = this.getPieceAt(new Position(file, rank));
                     sb.append(piece.toString());
                 }
             }
@@ -186,4 +443,57 @@ public class  Board {
         }
         return sb.toString();
     }
+
+    /**
+     * A read-only list over the squares of one color's occupancy, mapping each square to an element.
+     * Iterators take a copy of the occupancy when created.
+     */
+    private class OccupancyView<T> extends AbstractList<T> {
+        private final int color;
+        private final IntFunction<T> mapper;
+
+        private OccupancyView(Color color, IntFunction<T> mapper) {
+            this.color = color.ordinal();
+            this.mapper = mapper;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            long occupied = colorBitboards[color];
+            for (int i = 0; i < index; i++) {
+                occupied &= occupied - 1;
+            }
+            return mapper.apply(Long.numberOfTrailingZeros(occupied));
+        }
+
+        @Override
+        public int size() {
+            return Long.bitCount(colorBitboards[color]);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private long remaining = colorBitboards[color];
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public T next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int square = Long.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    return mapper.apply(square);
+                }
+            };
+        }
+    }
 }
@@ -2,18 +2,18 @@ package com.nathanholmberg.chess.engine.game;
 
 import com.nathanholmberg.chess.engine.enums.Color;
 import com.nathanholmberg.chess.engine.enums.GameResult;
+import com.nathanholmberg.chess.engine.enums.PieceType;
 import com.nathanholmberg.chess.engine.exceptions.IllegalMoveException;
-import com.nathanholmberg.chess.engine.pieces.King;
-import com.nathanholmberg.chess.engine.pieces.Pawn;
 import com.nathanholmberg.chess.engine.pieces.Piece;
 import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.MoveList;
+import com.nathanholmberg.chess.engine.types.PackedMove;
 import com.nathanholmberg.chess.engine.types.Position;
-import com.nathanholmberg.chess.engine.utils.FEN;
-import com.nathanholmberg.chess.engine.utils.MoveUtils;
+import com.nathanholmberg.chess.engine.utils.SAN;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.HashMap;
 
 public class ChessGame {
     public Board board;
@@ -21,17 +21,25 @@ public class ChessGame {
     private int halfMoveClock;
     private int fullMoveNumber;
     private GameResult result;
-    private final HashMap<String, Integer> boardHistory;
+    private long[] positionKeys;
+    private int positionCount;
     private final MoveHistory moveHistory;
 
+    // Legal moves of the current position, kept until the board or its key with the side to move changes
+    private final MoveList legalMoves = new MoveList();
+    private Board legalMovesBoard;
+    private long legalMovesKey;
+
     public ChessGame() {
         board = new Board();
         turn = Color.WHITE;
         halfMoveClock = 0;
         fullMoveNumber = 1;
         result = GameResult.ON_GOING;
-        boardHistory = new HashMap<>();
         moveHistory = new MoveHistory();
+        positionKeys = new long[256];
+        positionCount = 0;
+        updateBoardHistory();
     }
 
     public ChessGame(Board board, Color turn, int halfMoveClock, int fullMoveNumber) {
@@ -40,35 +48,43 @@ public class ChessGame {
         this.turn = turn;
         this.halfMoveClock = halfMoveClock;
         this.fullMoveNumber = fullMoveNumber;
+
+        // Start the history from this position
+        positionCount = 0;
+        updateBoardHistory();
     }
 
+    /**
+     * Moves the board to the position after the move at {@code moveIndex}, or to the starting position
+     * for -1. Each ply is taken back with its stored undo record or replayed from its packed move, so the
+     * cost is the number of plies between the current and the requested position, and the starting
+     * position is always the one the game began from, even when it was loaded from a FEN.
+     *
+     * @param moveIndex The index of the move to show, from -1 to the last move.
+     */
     public void loadGameStateAt(int moveIndex) {
         if (moveIndex < -1 || moveIndex >= moveHistory.getSize()) {
             throw new IllegalArgumentException("Invalid move index: " + moveIndex);
         }
 
-        // Fresh Game
-        ChessGame newChessGame = new ChessGame();
-        Board newBoard = newChessGame.board;
-
-        // Replay Moves
-        for (int i = 0; i <= moveIndex; i++) {
-            Move move = moveHistory.getMoves().get(i);
-            Piece piece = newBoard.getPieceAt(move.initialPosition());
-
-            if (piece == null || !piece.isMoveValid(move, newBoard)) {
-                throw new IllegalStateException("Invalid move in move history at index " + i + ": " + move);
-            }
-
-            newChessGame.move(move);
+        // Walk Back
+        while (moveHistory.getCurrentMoveIndex() > moveIndex) {
+            int index = moveHistory.getCurrentMoveIndex();
+            board.unmakeMove(moveHistory.getUndoRecord(index));
+            switchTurn();
+            halfMoveClock = moveHistory.getHalfMoveClockBefore(index);
+            fullMoveNumber = moveHistory.getFullMoveNumberBefore(index);
+            positionCount--;
+            moveHistory.setCurrentMoveIndex(index - 1);
         }
 
-        // Apply new game
-        board = newChessGame.board;
-        turn = newChessGame.turn;
-        halfMoveClock = newChessGame.halfMoveClock;
-        fullMoveNumber = newChessGame.fullMoveNumber;
-        moveHistory.setCurrentMoveIndex(moveIndex);
+        // Walk Forward
+        while (moveHistory.getCurrentMoveIndex() < moveIndex) {
+            int index = moveHistory.getCurrentMoveIndex() + 1;
+            playMove(Board.getUndoMove(moveHistory.getUndoRecord(index)));
+            positionCount++;
+            moveHistory.setCurrentMoveIndex(index);
+        }
     }
 
     public void stepFullBack() {
@@ -96,6 +112,25 @@ public class ChessGame {
         );
     }
 
+    /**
+     * Returns a new game at the position this game started from, with no moves played.
+     * The start is found by taking back the played moves on a copy of the board, not by replaying.
+     */
+    public ChessGame getInitialGame() {
+        Board initialBoard = board.getDeepCopy();
+        int currentMoveIndex = moveHistory.getCurrentMoveIndex();
+        for (int index = currentMoveIndex; index >= 0; index--) {
+            initialBoard.unmakeMove(moveHistory.getUndoRecord(index));
+        }
+
+        // Clocks and side to move from before the first move
+        if (moveHistory.getSize() == 0) {
+            return new ChessGame(initialBoard, turn, halfMoveClock, fullMoveNumber);
+        }
+        Color initialTurn = (currentMoveIndex + 1) % 2 == 0 ? turn : turn.inverse();
+        return new ChessGame(initialBoard, initialTurn, moveHistory.getHalfMoveClockBefore(0), moveHistory.getFullMoveNumberBefore(0));
+    }
+
     // Getters
     public Color getTurn() { return turn; }
     public int getHalfMoveClock() { return halfMoveClock; }
@@ -106,10 +141,76 @@ public class ChessGame {
 
     public void setResult(GameResult result) { this.result = result; }
 
+    /**
+     * Returns the Zobrist key of the position: the board's key with the side to move added.
+     *
+     * @return The 64-bit key of the position.
+     */
+    public long getZobristKey() {
+        return board.getZobristKey(turn);
+    }
+
     private void switchTurn() {
         this.turn = this.turn.inverse();
     }
 
+    /**
+     * Generates every legal move for the side to move in one pass.
+     * Promotions are listed once for each promotion piece.
+     *
+     * @return A new list of legal moves.
+     */
+    public List<Move> generateLegalMoves() {
+        List<Move> moves = new ArrayList<>();
+        generateLegalMoves(moves);
+        return moves;
+    }
+
+    /**
+     * Generates every legal move for the side to move into a list supplied by the caller,
+     * so the same list can be reused between positions. The list is cleared first.
+     *
+     * @param moves The list to fill with legal moves.
+     */
+    public void generateLegalMoves(List<Move> moves) {
+        moves.clear();
+        MoveList legalMoves = getCachedLegalMoves();
+        for (int i = 0; i < legalMoves.size(); i++) {
+            moves.add(PackedMove.toMove(legalMoves.get(i)));
+        }
+    }
+
+    /**
+     * Generates every legal move for the side to move as {@link PackedMove packed moves},
+     * into a list supplied by the caller. The list is cleared first and allocates nothing once warm.
+     *
+     * @param moves The list to fill with legal moves.
+     */
+    public void generateLegalMoves(MoveList moves) {
+        moves.clear();
+        MoveList legalMoves = getCachedLegalMoves();
+        for (int i = 0; i < legalMoves.size(); i++) {
+            moves.add(legalMoves.get(i));
+        }
+    }
+
+    /**
+     * Returns the legal moves of the current position, generating them only when the position has
+     * changed since the last call. The position is identified by the board and its Zobrist key with the
+     * side to move, so changes made straight to the board are picked up as well.
+     * The returned list is owned by the game and must not be modified.
+     */
+    private MoveList getCachedLegalMoves() {
+        long key = getZobristKey();
+        if (legalMovesBoard != board || legalMovesKey != key) {
+            legalMoves.clear();
+            MoveGenerator.generateLegalMoves(board, turn, legalMoves);
+            legalMovesBoard = board;
+            legalMovesKey = key;
+        }
+        return legalMoves;
+    }
+
     public List<Position> getLegalMoves(Position initialPosition) {
         List<Position> positions = new ArrayList<>();
 
@@ -126,17 +227,19 @@ public class ChessGame {
             return positions;
         }
 
-        // Loop Through Board
-        for (int file = 0; file < 8; file++) {
-            for (int rank = 0; rank < 8; rank++) {
-                Position finalPosition = new Position(file, rank);
-                Move currentMove = new Move(initialPosition, finalPosition, '\0');
-                if (MoveUtils.causesPromotion(currentMove, this)) {
-                    currentMove = new Move(initialPosition, finalPosition, 'q');
-                }
-                if (isMoveLegal(currentMove)) {
-                    positions.add(finalPosition);
-                }
+        // Cannot move after the game, or while the game is not current
+        if (getResult() != GameResult.ON_GOING || !moveHistory.isAtLastMove()) {
+            return positions;
+        }
+
+        // Collect the final positions of the piece's legal moves
+        MoveList legalMoves = getCachedLegalMoves();
+        int from = initialPosition.index();
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            Position finalPosition = Position.of(PackedMove.getTo(move));
+            if (PackedMove.getFrom(move) == from && !positions.contains(finalPosition)) {
+                positions.add(finalPosition);
             }
         }
         return positions;
@@ -150,19 +253,21 @@ public class ChessGame {
      * @return `true` if the move is safe for the king; otherwise, `false`.
      */
     public boolean isMoveSafe(Move move) {
+        // Apply Move
+        long undo;
         try {
-            // Create a copy of the board
-            Board boardCopy = board.getDeepCopy();
-
-            // Apply Move
-            boardCopy.executeMove(move);
+            undo = board.makeMove(move);
+        } catch (Exception e) {
+            return false;
+        }
 
-            // Check if the king is in check after the move
-            King king = boardCopy.getKing(turn);
-            Position kingPosition = boardCopy.getKingPosition(turn);
-            return !king.isChecked(kingPosition, boardCopy);
+        // Check if the king is in check after the move, then take the move back
+        try {
+            return !board.isKingInCheck(turn);
         } catch (Exception e) {
             return false;
+        } finally {
+            board.unmakeMove(undo);
         }
     }
 
@@ -173,8 +278,7 @@ public class ChessGame {
      * - The move corresponds to a non-null piece at the starting position.
      * - The game is up to date.
      * - The piece belongs to the current player.
-     * - The move is valid, according to the piece's movement rules and the game state.
-     * - The move does not leave the king in check.
+     * - The move is one of the legal moves of the current position, which are generated once per position.
      *
      * @param move The move to validate.
      * @return `true` if the move is legal; otherwise, `false`.
@@ -202,38 +306,53 @@ public class ChessGame {
             return false;
         }
 
-        // Move must be valid
-        if (!pieceToMove.isMoveValid(move, board)) {
-            return false;
-        }
-
-        // Move must be safe
-        return isMoveSafe(move);
+        // Move must be one of the position's legal moves
+        return getCachedLegalMoves().contains(PackedMove.fromMove(move, board));
     }
 
     public boolean isCheckmate() {
-        Position kingPosition = board.getKingPosition(turn);
-        return isStalemate() && board.getKing(turn).isChecked(kingPosition, board);
+        return isStalemate() && board.isKingInCheck(turn);
     }
 
     public boolean isStalemate() {
-        List<Position> pieces = board.getPiecePositionsByColor(turn);
+        return getCachedLegalMoves().isEmpty();
+    }
 
-        for (Position pos : pieces) {
-            if (!getLegalMoves(pos).isEmpty()) {
-                return false;
-            }
+    private void updateBoardHistory() {
+        if (positionCount == positionKeys.length) {
+            positionKeys = Arrays.copyOf(positionKeys, positionCount * 2);
         }
-        return true;
+        positionKeys[positionCount++] = getZobristKey();
     }
 
-    private void updateBoardHistory() {
-        String fen = FEN.getFENBoardAndTurn(this);
-        boardHistory.put(fen, boardHistory.getOrDefault(fen, 0) + 1);
+    /**
+     * Counts how many times the current position has occurred, itself included.
+     * A capture or pawn move can never be undone, so only the positions since the last one
+     * (the half move clock) are scanned, and only those with the same side to move.
+     *
+     * @return The number of occurrences of the current position.
+     */
+    public int getRepetitionCount() {
+        long key = positionKeys[positionCount - 1];
+        int oldest = Math.max(0, positionCount - 1 - halfMoveClock);
+        int count = 1;
+        for (int i = positionCount - 3; i >= oldest; i -= 2) {
+            if (positionKeys[i] == key) {
+                count++;
+            }
+        }
+        return count;
     }
 
-    private void updateMoveHistory(Move move) {
-        moveHistory.addMove(move);
+    /**
+     * Returns the keys of the positions that can still repeat: those since the last capture or pawn move,
+     * oldest first, ending with the current position. Searches use them to spot repetitions of positions
+     * played before the search started.
+     *
+     * @return A new array of Zobrist keys, with the side to move.
+     */
+    public long[] getReversiblePositionKeys() {
+        return Arrays.copyOfRange(positionKeys, Math.max(0, positionCount - 1 - halfMoveClock), positionCount);
     }
 
     private void checkWinConditions() {
@@ -256,7 +375,7 @@ public class ChessGame {
         }
 
         // Threefold Repetition
-        if (!boardHistory.isEmpty() && boardHistory.get(FEN.getFENBoardAndTurn(this)) >= 3) {
+        if (getRepetitionCount() >= 3) {
             result = GameResult.THREEFOLD_REPETITION;
         }
     }
@@ -305,40 +424,62 @@ public class ChessGame {
             throw new IllegalMoveException("Illegal Move: '" + pieceToMove + "' cannot move this turn.");
         }
 
-        // Move must be valid
-        if (!pieceToMove.isMoveValid(move, board)) {
-            throw new IllegalMoveException("Illegal Move: " + move);
+        // Move must be legal, the piece's rules only tell why it is not
+        int packedMove = PackedMove.fromMove(move, board);
+        if (!getCachedLegalMoves().contains(packedMove)) {
+            if (!pieceToMove.isMoveValid(move, board)) {
+                throw new IllegalMoveException("Illegal Move: " + move);
+            }
+            throw new IllegalMoveException("Illegal Move: " + move + " leaves king in check.");
         }
 
-        // Is Move Safe?
-        if (!isMoveSafe(move)) {
-            throw new IllegalMoveException("Illegal Move: " + move + " leaves king in check.");
+        // SAN, before the move changes the board
+        StringBuilder san = new StringBuilder(8);
+        SAN.appendMove(san, packedMove, board, getCachedLegalMoves());
+
+        // Make Move on Board
+        Color color = turn;
+        int halfMoveClockBefore = halfMoveClock;
+        int fullMoveNumberBefore = fullMoveNumber;
+        long undo = playMove(packedMove);
+
+        // The replies are needed for the game over checks anyway, so they decide the suffix
+        if (board.isKingInCheck(turn)) {
+            san.append(getCachedLegalMoves().isEmpty() ? '#' : '+');
         }
 
+        //  Update History
+        this.updateBoardHistory();
+        moveHistory.addMove(move, san.toString(), color, undo, halfMoveClockBefore, fullMoveNumberBefore);
+
+        // Check for Win Condition
+        this.checkWinConditions();
+    }
+
+    /**
+     * Plays a packed move, updating the clocks and the side to move.
+     *
+     * @param packedMove The packed move to play.
+     * @return The undo record from the board.
+     */
+    private long playMove(int packedMove) {
         // Update Full
         if (this.turn == Color.BLACK) {
             this.fullMoveNumber++;
         }
 
         // Update Half
-        if ((pieceToMove instanceof Pawn) || (MoveUtils.isCapture(move, this))) {
+        Piece pieceToMove = board.getPieceAt(PackedMove.getFrom(packedMove));
+        if (pieceToMove.getType() == PieceType.PAWN || PackedMove.isCapture(packedMove)) {
             this.halfMoveClock = 0;
         } else {
             this.halfMoveClock++;
         }
 
-        // Make Move on Board
-        board.executeMove(move);
-
-        // Switch Players
+        // Make Move on Board, then Switch Players
+        long undo = board.makeMove(packedMove);
         this.switchTurn();
-
-        //  Update History
-        this.updateBoardHistory();
-        this.updateMoveHistory(move);
-
-        // Check for Win Condition
-        this.checkWinConditions();
+        return undo;
     }
 
     @Override
@@ -0,0 +1,207 @@
+package com.nathanholmberg.chess.engine.game;
+
+import com.nathanholmberg.chess.engine.attacks.Attacks;
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
+import com.nathanholmberg.chess.engine.types.CastlingRights;
+import com.nathanholmberg.chess.engine.types.MoveList;
+import com.nathanholmberg.chess.engine.types.PackedMove;
+import com.nathanholmberg.chess.engine.types.Position;
+
+/**
+ * Generates every legal move for one side of a {@link Board} in a single pass.
+ *
+ * <p>Moves are first generated per piece type from the board's bitboards, then filtered with two masks
+ * instead of being played out one by one:</p>
+ * <ul>
+ *   <li>The check mask: when the king is in check by a single piece, other pieces may only capture the
+ *   checker or block the line between it and the king. In double check only the king may move.</li>
+ *   <li>The pin mask: a piece pinned to its king may only move along the line through the king.</li>
+ * </ul>
+ * <p>King moves are checked against the enemy attacks with the king lifted off the board, and en passant,
+ * which removes two pieces from a rank at once, is checked by looking at the resulting occupancy.</p>
+ */
+public class MoveGenerator {
+    /**
+     * Adds every legal move for {@code color} on {@code board} to {@code moves} as {@link PackedMove packed moves}.
+     * Promotions are added once for each promotion piece.
+     *
+     * @param board The board to generate moves on.
+     * @param color The side to move.
+     * @param moves The list to add the moves to.
+     */
+    public static void generateLegalMoves(Board board, Color color, MoveList moves) {
+        Color enemy = color.inverse();
+        long enemies = board.getOccupancy(enemy);
+        long own = board.getOccupancy(color);
+        long occupied = board.getOccupancy();
+        long kingBitboard = board.getPieceBitboard(color, PieceType.KING);
+        if (kingBitboard == 0) { return; }
+        int king = Long.numberOfTrailingZeros(kingBitboard);
+
+        // King Moves, with the king lifted off the board so it cannot hide behind itself
+        long kingTargets = Attacks.king(king) & ~own;
+        for (long targets = kingTargets; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (!isSquareAttacked(board, to, enemy, occupied ^ kingBitboard)) {
+                moves.add(PackedMove.encode(king, to, (enemies & (1L << to)) != 0 ? PackedMove.CAPTURE : PackedMove.QUIET));
+            }
+        }
+
+        // Double Check, only the king can move
+        long checkers = board.getAttackers(king, enemy, occupied);
+        if (Long.bitCount(checkers) > 1) { return; }
+
+        // Check Mask
+        long checkMask = ~0L;
+        if (checkers != 0) {
+            checkMask = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+        }
+
+        // Pinned Pieces
+        long pinned = getPinned(board, color, king);
+
+        // Knights
+        for (long pieces = board.getPieceBitboard(color, PieceType.KNIGHT) & ~pinned; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            addMoves(moves, from, Attacks.knight(from) & ~own & checkMask, enemies);
+        }
+
+        // Bishops, Rooks and Queens
+        long queens = board.getPieceBitboard(color, PieceType.QUEEN);
+        for (long pieces = board.getPieceBitboard(color, PieceType.BISHOP) | queens; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            long pinMask = (pinned & (1L << from)) != 0 ? Attacks.line(king, from) : ~0L;
+            addMoves(moves, from, Attacks.bishop(from, occupied) & ~own & checkMask & pinMask, enemies);
+        }
+        for (long pieces = board.getPieceBitboard(color, PieceType.ROOK) | queens; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            long pinMask = (pinned & (1L << from)) != 0 ? Attacks.line(king, from) : ~0L;
+            addMoves(moves, from, Attacks.rook(from, occupied) & ~own & checkMask & pinMask, enemies);
+        }
+
+        // Pawns
+        generatePawnMoves(board, color, king, checkMask, pinned, moves);
+
+        // Castling
+        if (checkers == 0) {
+            generateCastlingMoves(board, color, king, moves);
+        }
+    }
+
+    private static void generatePawnMoves(Board board, Color color, int king, long checkMask, long pinned, MoveList moves) {
+        Color enemy = color.inverse();
+        long occupied = board.getOccupancy();
+        long enemies = board.getOccupancy(enemy);
+        int forward = color == Color.WHITE ? 8 : -8;
+        int startRank = color == Color.WHITE ? 1 : 6;
+        Position enPassantPosition = board.getEnPassantPosition();
+
+        for (long pawns = board.getPieceBitboard(color, PieceType.PAWN); pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            long pinMask = (pinned & (1L << from)) != 0 ? Attacks.line(king, from) : ~0L;
+            long mask = checkMask & pinMask;
+
+            // Single and Double Push
+            int single = from + forward;
+            if ((occupied & (1L << single)) == 0) {
+                addPawnMoves(moves, from, (1L << single) & mask, PackedMove.QUIET);
+                int doubled = single + forward;
+                if (from >>> 3 == startRank && (occupied & (1L << doubled)) == 0 && (mask & (1L << doubled)) != 0) {
+                    moves.add(PackedMove.encode(from, doubled, PackedMove.DOUBLE_PAWN_PUSH));
+                }
+            }
+
+            // Captures
+            long attacks = Attacks.pawn(from, color);
+            addPawnMoves(moves, from, attacks & enemies & mask, PackedMove.CAPTURE);
+
+            // En Passant, checked against the occupancy after both pawns leave their squares
+            if (enPassantPosition != null && (attacks & (1L << enPassantPosition.index())) != 0) {
+                int to = enPassantPosition.index();
+                int captured = to - forward;
+                long occupiedAfter = occupied ^ (1L << from) ^ (1L << to) ^ (1L << captured);
+                if (!isSquareAttacked(board, king, enemy, occupiedAfter, 1L << captured)) {
+                    moves.add(PackedMove.encode(from, to, PackedMove.EN_PASSANT));
+                }
+            }
+        }
+    }
+
+    private static void generateCastlingMoves(Board board, Color color, int king, MoveList moves) {
+        Color enemy = color.inverse();
+        long occupied = board.getOccupancy();
+        CastlingRights rights = board.getCastlingRights();
+
+        // King must be on its starting file
+        if ((king & 7) != 4) { return; }
+
+        // King Side, two squares must be clear and not attacked
+        if (rights.isCastlingAllowed(color, true)
+                && (occupied & ((1L << (king + 1)) | (1L << (king + 2)))) == 0
+                && !isSquareAttacked(board, king + 1, enemy, occupied)
+                && !isSquareAttacked(board, king + 2, enemy, occupied)) {
+            moves.add(PackedMove.encode(king, king + 2, PackedMove.KING_CASTLE));
+        }
+
+        // Queen Side, three squares must be clear and two not attacked
+        if (rights.isCastlingAllowed(color, false)
+                && (occupied & ((1L << (king - 1)) | (1L << (king - 2)) | (1L << (king - 3)))) == 0
+                && !isSquareAttacked(board, king - 1, enemy, occupied)
+                && !isSquareAttacked(board, king - 2, enemy, occupied)) {
+            moves.add(PackedMove.encode(king, king - 2, PackedMove.QUEEN_CASTLE));
+        }
+    }
+
+    private static long getPinned(Board board, Color color, int king) {
+        Color enemy = color.inverse();
+        long own = board.getOccupancy(color);
+        long occupied = board.getOccupancy();
+        long enemyQueens = board.getPieceBitboard(enemy, PieceType.QUEEN);
+
+        // Enemy sliders that would see the king if only enemy pieces blocked
+        long enemies = board.getOccupancy(enemy);
+        long snipers = (Attacks.rook(king, enemies) & (board.getPieceBitboard(enemy, PieceType.ROOK) | enemyQueens))
+                | (Attacks.bishop(king, enemies) & (board.getPieceBitboard(enemy, PieceType.BISHOP) | enemyQueens));
+
+        // A sniper with exactly one friendly piece in between pins it
+        long pinned = 0L;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    private static boolean isSquareAttacked(Board board, int square, Color byColor, long occupied) {
+        return board.getAttackers(square, byColor, occupied) != 0;
+    }
+
+    private static boolean isSquareAttacked(Board board, int square, Color byColor, long occupied, long removed) {
+        return (board.getAttackers(square, byColor, occupied) & ~removed) != 0;
+    }
+
+    // Adders
+    private static void addMoves(MoveList moves, int from, long targets, long enemies) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves.add(PackedMove.encode(from, to, (enemies & (1L << to)) != 0 ? PackedMove.CAPTURE : PackedMove.QUIET));
+        }
+    }
+
+    private static void addPawnMoves(MoveList moves, int from, long targets, int flags) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (to >>> 3 == 0 || to >>> 3 == 7) {
+                moves.add(PackedMove.encode(from, to, flags | PackedMove.QUEEN_PROMOTION));
+                moves.add(PackedMove.encode(from, to, flags | PackedMove.ROOK_PROMOTION));
+                moves.add(PackedMove.encode(from, to, flags | PackedMove.BISHOP_PROMOTION));
+                moves.add(PackedMove.encode(from, to, flags | PackedMove.KNIGHT_PROMOTION));
+            } else {
+                moves.add(PackedMove.encode(from, to, flags));
+            }
+        }
+    }
+}
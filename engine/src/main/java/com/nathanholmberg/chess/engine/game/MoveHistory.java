@@ -1,21 +1,70 @@
 package com.nathanholmberg.chess.engine.game;
 
+import com.nathanholmberg.chess.engine.enums.Color;
 import com.nathanholmberg.chess.engine.types.Move;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * The moves played in a game, with what is needed to walk back and forth through them.
+ *
+ * <p>Alongside each move the history keeps the board's undo record (see {@link Board#makeMove(int)}),
+ * which also holds the packed move, and the half move clock and full move number from before the move.
+ * Stepping one ply back is then a single {@link Board#unmakeMove(long)}, and stepping forward replays the
+ * packed move without validating it again.</p>
+ *
+ * <p>The history also keeps each move's SAN and the PGN movetext built up as moves are added, with
+ * the move numbers in place and the end of each move's text recorded, so exporting the movetext never
+ * replays the game and dropping moves after a branch only shortens the text.</p>
+ */
 public class MoveHistory {
-    public List<Move> moves;
+    private final List<Move> moves;
+    private final List<String> sans;
+    private final StringBuilder movetext;
+    private String movetextString;
+    private int[] movetextEnds;
+    private long[] undoRecords;
+    private int[] halfMoveClocks;
+    private int[] fullMoveNumbers;
     private int currentMoveIndex;
 
     public MoveHistory() {
         this.moves = new ArrayList<>();
+        this.sans = new ArrayList<>();
+        this.movetext = new StringBuilder();
+        this.movetextString = "";
+        this.movetextEnds = new int[64];
+        this.undoRecords = new long[64];
+        this.halfMoveClocks = new int[64];
+        this.fullMoveNumbers = new int[64];
         this.currentMoveIndex = -1;
     }
 
     // Getters
-    public List<Move> getMoves() { return new ArrayList<>(moves); }
+    /**
+     * Returns the moves played, as a read-only view, so nothing is copied per call.
+     */
+    public List<Move> getMoves() { return Collections.unmodifiableList(moves); }
+    /**
+     * Returns the SAN of the moves played, as a read-only view.
+     */
+    public List<String> getSANs() { return Collections.unmodifiableList(sans); }
+    public String getSAN(int index) { return sans.get(index); }
+
+    /**
+     * Returns the PGN movetext of every move played, such as {@code 1. e4 e5 2. Nf3}, without a result.
+     * The text is kept up to date as moves are added, and the string is cached until the next one.
+     */
+    public String getMovetext() {
+        if (movetextString == null) {
+            movetextString = movetext.toString();
+        }
+        return movetextString;
+    }
+
     public int getCurrentMoveIndex() { return currentMoveIndex; }
     public int getSize() { return moves.size(); }
     public Move getLastMove() {
@@ -23,6 +72,11 @@ public class MoveHistory {
         return moves.get(currentMoveIndex);
     }
 
+    // Per Ply State
+    long getUndoRecord(int index) { return undoRecords[index]; }
+    int getHalfMoveClockBefore(int index) { return halfMoveClocks[index]; }
+    int getFullMoveNumberBefore(int index) { return fullMoveNumbers[index]; }
+
     public void setCurrentMoveIndex(int index) {
         if (index < -1 || index >= moves.size()) {
             throw new IllegalArgumentException("Invalid index for move history.");
@@ -34,12 +88,51 @@ public class MoveHistory {
         return (currentMoveIndex == getSize() - 1);
     }
 
-    public void addMove(Move move) {
+    /**
+     * Adds a move after the current one, dropping any moves that came after it.
+     *
+     * @param move The move played.
+     * @param san The move in SAN.
+     * @param color The side that played the move.
+     * @param undoRecord The undo record the board returned for the move.
+     * @param halfMoveClock The half move clock before the move.
+     * @param fullMoveNumber The full move number before the move.
+     */
+    public void addMove(Move move, String san, Color color, long undoRecord, int halfMoveClock, int fullMoveNumber) {
         // If we undid moves and then make a new move, delete "future" moves
         if (currentMoveIndex < moves.size() - 1) {
-            moves = moves.subList(0, currentMoveIndex + 1);
+            moves.subList(currentMoveIndex + 1, moves.size()).clear();
+            sans.subList(currentMoveIndex + 1, sans.size()).clear();
+            movetext.setLength(currentMoveIndex < 0 ? 0 : movetextEnds[currentMoveIndex]);
         }
+
+        // Grow
+        if (moves.size() == undoRecords.length) {
+            undoRecords = Arrays.copyOf(undoRecords, undoRecords.length * 2);
+            halfMoveClocks = Arrays.copyOf(halfMoveClocks, halfMoveClocks.length * 2);
+            fullMoveNumbers = Arrays.copyOf(fullMoveNumbers, fullMoveNumbers.length * 2);
+            movetextEnds = Arrays.copyOf(movetextEnds, movetextEnds.length * 2);
+        }
+
+        // Movetext, numbering white's moves and a black move that starts the text
+        int index = moves.size();
+        if (index > 0) {
+            movetext.append(' ');
+        }
+        if (color == Color.WHITE) {
+            movetext.append(fullMoveNumber).append(". ");
+        } else if (index == 0) {
+            movetext.append(fullMoveNumber).append("... ");
+        }
+        movetext.append(san);
+        movetextEnds[index] = movetext.length();
+        movetextString = null;
+
+        sans.add(san);
         moves.add(move);
+        undoRecords[index] = undoRecord;
+        halfMoveClocks[index] = halfMoveClock;
+        fullMoveNumbers[index] = fullMoveNumber;
         currentMoveIndex++;
     }
 }
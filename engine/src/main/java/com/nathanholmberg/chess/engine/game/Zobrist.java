@@ -0,0 +1,48 @@
+package com.nathanholmberg.chess.engine.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing.
+ *
+ * <p>A position's key is the XOR of one key per piece on its square, one per set of castling rights,
+ * one for the en passant file when a capture is possible, and one when black is to move. Moving a
+ * piece only needs the keys of the squares it leaves and enters XORed in, so the key can be kept up to date
+ * move by move. The keys come from a fixed seed, so the same position always has the same key.</p>
+ */
+class Zobrist {
+    // Piece keys by bitboard index (color * 6 + type) and square
+    private static final long[][] PIECES = new long[12][64];
+    // Castling keys by castling bits (1 WK, 2 WQ, 4 BK, 8 BQ)
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILES = new long[8];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C0FFEE_1234L);
+        for (long[] squares : PIECES) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        for (int bits = 0; bits < 16; bits++) {
+            CASTLING[bits] = random.nextLong();
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILES[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    static long piece(int bitboardIndex, int square) {
+        return PIECES[bitboardIndex][square];
+    }
+
+    static long castling(int castlingBits) {
+        return CASTLING[castlingBits];
+    }
+
+    static long enPassant(int square) {
+        return EN_PASSANT_FILES[square & 7];
+    }
+}
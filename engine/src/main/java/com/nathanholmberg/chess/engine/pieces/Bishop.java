@@ -1,26 +1,21 @@
 package com.nathanholmberg.chess.engine.pieces;
 
+import com.nathanholmberg.chess.engine.attacks.Attacks;
 import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
 import com.nathanholmberg.chess.engine.game.Board;
 import com.nathanholmberg.chess.engine.types.Move;
-import com.nathanholmberg.chess.engine.types.Position;
-import com.nathanholmberg.chess.engine.utils.PieceUtils;
 
 public class Bishop extends Piece {
     public Bishop(Color color) { super(color); }
 
     @Override
-    public boolean isPieceSpecificMoveValid(Move move, Board board) {
-        // Collapse Move Obj
-        Position initialPosition = move.initialPosition();
-        Position finalPosition = move.finalPosition();
-
-        // Must be a diagonal move
-        if (Math.abs(initialPosition.file() - finalPosition.file()) != Math.abs(initialPosition.rank() - finalPosition.rank())) {
-            return false;
-        }
+    public PieceType getType() { return PieceType.BISHOP; }
 
-        // Check if the path is clear
-        return PieceUtils.isPathClear(move, board);
+    @Override
+    public boolean isPieceSpecificMoveValid(Move move, Board board) {
+        // Must be on an open diagonal
+        long attacks = Attacks.bishop(move.initialPosition().index(), board.getOccupancy());
+        return (attacks & (1L << move.finalPosition().index())) != 0;
     }
 }
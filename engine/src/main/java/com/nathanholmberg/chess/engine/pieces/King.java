@@ -1,6 +1,8 @@
 package com.nathanholmberg.chess.engine.pieces;
 
+import com.nathanholmberg.chess.engine.attacks.Attacks;
 import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
 import com.nathanholmberg.chess.engine.game.Board;
 import com.nathanholmberg.chess.engine.types.CastlingRights;
 import com.nathanholmberg.chess.engine.types.Move;
@@ -10,56 +12,12 @@ public class King extends Piece {
     public King(Color color) { super(color); }
 
     @Override
-    public void specialMoveExecution(Move move, Board board) {
-        super.specialMoveExecution(move, board);
-
-        // Collapse Move Obj
-        Position initialPosition = move.initialPosition();
-
-        // If Castle King Side
-        if (isCastleAttempt(move, true)) {
-            Position rookPosition = initialPosition.move(3, 0);
-            Piece rookPiece = board.getPieceAt(rookPosition);
-
-            // Place Rook
-            board.setPieceAt(initialPosition.move(1, 0), rookPiece);
-
-            // Remove Old Rook
-            board.setPieceAt(rookPosition, null);
-        }
-
-        // If Castle Queen Side
-        if (isCastleAttempt(move, false)) {
-            Position rookPosition = initialPosition.move(-4, 0);
-            Piece rookPiece = board.getPieceAt(rookPosition);
-
-            // Place Rook
-            board.setPieceAt(initialPosition.move(-1, 0), rookPiece);
-
-            // Remove Old Rook
-            board.setPieceAt(rookPosition, null);
-        }
-
-        // Update CastlingRights
-        if (getColor() == Color.WHITE) {
-            board.getCastlingRights().setWhiteKingSide(false);
-            board.getCastlingRights().setWhiteQueenSide(false);
-        } else {
-            board.getCastlingRights().setBlackKingSide(false);
-            board.getCastlingRights().setBlackQueenSide(false);
-        }
-    }
+    public PieceType getType() { return PieceType.KING; }
 
     @Override
     public boolean isPieceSpecificMoveValid(Move move, Board board) {
-        Position initial = move.initialPosition();
-        Position finalPos = move.finalPosition();
-
-        int deltaFile = Math.abs(finalPos.file() - initial.file());
-        int deltaRank = Math.abs(finalPos.rank() - initial.rank());
-
         // Basic king movement: one step in any direction
-        if (deltaFile <= 1 && deltaRank <= 1) {
+        if ((Attacks.king(move.initialPosition().index()) & (1L << move.finalPosition().index())) != 0) {
             return true;
         }
 
@@ -119,9 +77,9 @@ public class King extends Piece {
 
     private boolean isInCheckDuringCastling(Position initial, boolean kingSide, Board board) {
         int direction = kingSide ? 1 : -1;
+        Color enemy = getColor().inverse();
         for (int i = 0; i <= 2; i++) { // Include intermediate square and final square
-            Position intermediate = initial.move(direction * i, 0);
-            if (isChecked(intermediate, board)) {
+            if (board.isSquareAttacked(initial.index() + direction * i, enemy)) {
                 return true; // King would be in check
             }
         }
@@ -129,18 +87,7 @@ public class King extends Piece {
     }
 
     public boolean isChecked(Position position, Board board) {
-        for (int file = 0; file < 8; file++) {
-            for (int rank = 0; rank < 8; rank++) {
-                Position attackerPos = new Position(file, rank);
-                Piece attacker = board.getPieceAt(attackerPos);
-
-                if (attacker != null &&
-                        attacker.getColor() != this.getColor() &&
-                        attacker.isMoveValid(new Move(attackerPos, position, '\0'), board)) {
-                    return true; // Enemy piece attacks this square
-                }
-            }
-        }
-        return false;
+        // Look outward from the square for enemy attackers instead of trying every enemy piece
+        return board.isSquareAttacked(position, getColor().inverse());
     }
 }
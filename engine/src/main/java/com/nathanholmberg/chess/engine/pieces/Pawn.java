@@ -1,40 +1,17 @@
 package com.nathanholmberg.chess.engine.pieces;
 
+import com.nathanholmberg.chess.engine.attacks.Attacks;
 import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
 import com.nathanholmberg.chess.engine.game.Board;
 import com.nathanholmberg.chess.engine.types.Move;
 import com.nathanholmberg.chess.engine.types.Position;
-import com.nathanholmberg.chess.engine.utils.PieceUtils;
 
 public class Pawn extends Piece {
     public Pawn(Color color) { super(color); }
 
     @Override
-    public void specialMoveExecution(Move move, Board board) {
-        // Collapse Move Obj
-        Position initialPosition = move.initialPosition();
-        Position finalPosition = move.finalPosition();
-
-        // If enPassant
-        if (isLegalEnPassant(move, board)) {
-            // Remove En Passanted Pawn
-            Position removedPawnPos = new Position(finalPosition.file(), initialPosition.rank());
-            board.setPieceAt(removedPawnPos, null);
-        }
-
-        // Update enPassantPosition
-        if (isLegalDouble(move, board)) {
-            Position newEnPassantPosition = initialPosition.move(0, this.getColor() == Color.WHITE ? 1 : -1);
-            board.setEnPassantPosition(newEnPassantPosition);
-        } else {
-            board.setEnPassantPosition(null);
-        }
-
-        // Promotion
-        if (isLegalPromotion(move, board)) {
-            board.setPieceAt(initialPosition, PieceUtils.charToPiece(move.promotionPiece(), getColor()));
-        }
-    }
+    public PieceType getType() { return PieceType.PAWN; }
 
     public boolean isLegalPromotion(Move move, Board board) {
         Position finalPosition = move.finalPosition();
@@ -99,31 +76,20 @@ public class Pawn extends Piece {
     }
 
     private boolean isLegalCapture(Move move, Board board) {
-        Position initialPosition = move.initialPosition();
         Position finalPosition = move.finalPosition();
-        int fileDirection = this.getColor() == Color.WHITE ? 1 : -1;
-
-        // Must be 1 file away
-        if (Math.abs(finalPosition.file() - initialPosition.file()) != 1) { return false; }
 
-        // Must be 1 rank away
-        if (finalPosition.rank() - initialPosition.rank() != fileDirection) { return false; }
+        // Must be 1 diagonal step forward
+        if ((Attacks.pawn(move.initialPosition().index(), getColor()) & (1L << finalPosition.index())) == 0) { return false; }
 
         // Must have piece to capture
         return board.getPieceAt(finalPosition) != null;
     }
 
     public boolean isLegalEnPassant(Move move, Board board) {
-        Position initialPosition = move.initialPosition();
         Position finalPosition = move.finalPosition();
 
-        // Files are 1 away
-        if (Math.abs(finalPosition.file() - initialPosition.file()) != 1) {
-            return false;
-        }
-
-        // Ranks are 1 away (sign depends on color)
-        if (finalPosition.rank() - initialPosition.rank() != (this.getColor() == Color.WHITE ? 1 : -1)) {
+        // Must be 1 diagonal step forward
+        if ((Attacks.pawn(move.initialPosition().index(), getColor()) & (1L << finalPosition.index())) == 0) {
             return false;
         }
 
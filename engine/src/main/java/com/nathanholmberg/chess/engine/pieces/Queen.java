@@ -1,30 +1,21 @@
 package com.nathanholmberg.chess.engine.pieces;
 
+import com.nathanholmberg.chess.engine.attacks.Attacks;
 import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
 import com.nathanholmberg.chess.engine.game.Board;
 import com.nathanholmberg.chess.engine.types.Move;
-import com.nathanholmberg.chess.engine.types.Position;
-import com.nathanholmberg.chess.engine.utils.PieceUtils;
 
 public class Queen extends Piece {
     public Queen(Color color) { super(color); }
 
     @Override
-    public boolean isPieceSpecificMoveValid(Move move, Board board) {
-        // Collapse Move Obj
-        Position initialPosition = move.initialPosition();
-        Position finalPosition = move.finalPosition();
-
-        // Conditions for queen's movement
-        boolean isStraightMove = initialPosition.file() == finalPosition.file() ||
-                initialPosition.rank() == finalPosition.rank();
-        boolean isDiagonalMove = Math.abs(initialPosition.file() - finalPosition.file()) ==
-                Math.abs(initialPosition.rank() - finalPosition.rank());
-
-        // Must be a straight or diagonal move
-        if (!(isStraightMove || isDiagonalMove)) { return false; }
+    public PieceType getType() { return PieceType.QUEEN; }
 
-        // Check if the path is clear
-        return PieceUtils.isPathClear(move, board);
+    @Override
+    public boolean isPieceSpecificMoveValid(Move move, Board board) {
+        // Must be on an open rank, file or diagonal
+        long attacks = Attacks.queen(move.initialPosition().index(), board.getOccupancy());
+        return (attacks & (1L << move.finalPosition().index())) != 0;
     }
 }
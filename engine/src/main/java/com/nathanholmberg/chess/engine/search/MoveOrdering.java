@@ -0,0 +1,236 @@
+package com.nathanholmberg.chess.engine.search;
+
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
+import com.nathanholmberg.chess.engine.game.Board;
+import com.nathanholmberg.chess.engine.pieces.Piece;
+import com.nathanholmberg.chess.engine.types.MoveList;
+import com.nathanholmberg.chess.engine.types.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * Orders the moves of a search so the ones most likely to cause a cutoff are tried first.
+ *
+ * <p>Each move gets a score when its position is reached, and moves are then picked one at a time with
+ * {@link #nextMove}, a step of selection sort, so a node that cuts off after a move or two never sorts
+ * the rest. The scores, highest first:</p>
+ * <ul>
+ *   <li>The best guess, the move from the transposition table or the last iteration's line.</li>
+ *   <li>Captures and promotions, by most valuable victim then least valuable attacker (MVV-LVA), except
+ *       captures that {@link SEE} finds lose material.</li>
+ *   <li>Two killer moves per ply, quiet moves that cut off at the same ply elsewhere in the tree.</li>
+ *   <li>The countermove, the quiet move that last cut off in reply to the previous move.</li>
+ *   <li>Other quiet moves by their butterfly history, a score per side, from square and to square, raised
+ *       when the move cuts off and lowered when a quiet move tried before it did not.</li>
+ *   <li>Losing captures, by MVV-LVA.</li>
+ * </ul>
+ *
+ * <p>The heuristics can be switched off one by one, to measure what each is worth. An instance belongs to
+ * one search thread.</p>
+ */
+public class MoveOrdering {
+    public static final int MVV_LVA = 1;
+    public static final int KILLERS = 2;
+    public static final int HISTORY = 4;
+    public static final int COUNTERMOVES = 8;
+    public static final int ALL = MVV_LVA | KILLERS | HISTORY | COUNTERMOVES;
+
+    private static final int BEST_GUESS_SCORE = 1_000_000;
+    private static final int CAPTURE_SCORE = 100_000;
+    private static final int KILLER_SCORE = 90_000;
+    private static final int COUNTERMOVE_SCORE = 80_000;
+    private static final int LOSING_CAPTURE_SCORE = -100_000;
+    private static final int MAX_HISTORY = 16_384;
+    private static final int[] VICTIM_VALUES = {1, 3, 3, 5, 9, 0};
+
+    private final int heuristics;
+    private final int[][] scores;
+    private final int[][] killers;
+    private final int[][][] history = new int[2][64][64];
+    private final int[][] countermoves = new int[64][64];
+
+    /**
+     * @param maxPly The deepest ply that will be ordered, plus one.
+     * @param heuristics The heuristics to use, such as {@link #ALL}.
+     */
+    public MoveOrdering(int maxPly, int heuristics) {
+        this.heuristics = heuristics;
+        this.scores = new int[maxPly][256];
+        this.killers = new int[maxPly][2];
+    }
+
+    /**
+     * Scores the moves of a position, ready for {@link #nextMove}.
+     *
+     * @param board The position, before any of the moves.
+     * @param turn The side to move.
+     * @param moves The moves to order.
+     * @param ply The ply of the position.
+     * @param bestGuess A move to try first, or {@link PackedMove#NONE}.
+     * @param previousMove The move that led to the position, or {@link PackedMove#NONE} at the root.
+     */
+    public void scoreMoves(Board board, Color turn, MoveList moves, int ply, int bestGuess, int previousMove) {
+        int[] plyScores = scores[ply];
+        int countermove = countermoves[PackedMove.getFrom(previousMove)][PackedMove.getTo(previousMove)];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == bestGuess) {
+                score = BEST_GUESS_SCORE;
+            } else if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                score = (heuristics & MVV_LVA) != 0 ? getCaptureScore(board, move) : 0;
+            } else if ((heuristics & KILLERS) != 0 && move == killers[ply][0]) {
+                score = KILLER_SCORE + 1;
+            } else if ((heuristics & KILLERS) != 0 && move == killers[ply][1]) {
+                score = KILLER_SCORE;
+            } else if ((heuristics & COUNTERMOVES) != 0 && move == countermove && previousMove != PackedMove.NONE) {
+                score = COUNTERMOVE_SCORE;
+            } else if ((heuristics & HISTORY) != 0) {
+                score = history[turn.ordinal()][PackedMove.getFrom(move)][PackedMove.getTo(move)];
+            } else {
+                score = 0;
+            }
+            plyScores[i] = score;
+        }
+    }
+
+    /**
+     * Scores the moves of a quiescence search, which only tries captures and promotions: those by MVV-LVA
+     * with losing captures after the rest, whatever heuristics are set, and quiet moves last. Once
+     * {@link #nextMove} returns a quiet move or {@link #isLosingCapture} holds, the rest are no better.
+     *
+     * @param board The position, before any of the moves.
+     * @param moves The moves to order.
+     * @param ply The ply of the position.
+     */
+    public void scoreCaptures(Board board, MoveList moves, int ply) {
+        int[] plyScores = scores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            plyScores[i] = PackedMove.isCapture(move) || PackedMove.isPromotion(move) ? getCaptureScore(board, move) : Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Returns whether the move picked at {@code index} is a capture that {@link SEE} finds loses material.
+     */
+    public boolean isLosingCapture(int ply, int index) {
+        int score = scores[ply][index];
+        return score != Integer.MIN_VALUE && score < LOSING_CAPTURE_SCORE / 2;
+    }
+
+    /**
+     * Picks the best scored move from {@code index} on and swaps it into {@code index}.
+     *
+     * @param moves The moves scored by {@link #scoreMoves} at this ply.
+     * @param ply The ply of the position.
+     * @param index How many moves have been picked so far.
+     * @return The move to try next.
+     */
+    public int nextMove(MoveList moves, int ply, int index) {
+        int[] plyScores = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int score = plyScores[index];
+            plyScores[index] = plyScores[best];
+            plyScores[best] = score;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff: it becomes a killer at this ply and the countermove
+     * to the previous move, and its history rises while the quiet moves tried before it fall.
+     *
+     * @param turn The side that played the move.
+     * @param moves The moves of the position, in the order they were tried.
+     * @param index The index of the move that cut off.
+     * @param ply The ply of the position.
+     * @param depth The depth left at the position; deeper cutoffs count for more.
+     * @param previousMove The move that led to the position, or {@link PackedMove#NONE} at the root.
+     */
+    public void recordCutoff(Color turn, MoveList moves, int index, int ply, int depth, int previousMove) {
+        int move = moves.get(index);
+
+        // Killers
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+
+        // Countermove
+        if (previousMove != PackedMove.NONE) {
+            countermoves[PackedMove.getFrom(previousMove)][PackedMove.getTo(previousMove)] = move;
+        }
+
+        // History
+        int bonus = Math.min(depth * depth, MAX_HISTORY);
+        updateHistory(turn, move, bonus);
+        for (int i = 0; i < index; i++) {
+            int tried = moves.get(i);
+            if (!PackedMove.isCapture(tried) && !PackedMove.isPromotion(tried)) {
+                updateHistory(turn, tried, -bonus);
+            }
+        }
+    }
+
+    /**
+     * Clears the killers and countermoves, and halves the history so it fades between searches.
+     */
+    public void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = PackedMove.NONE;
+            plyKillers[1] = PackedMove.NONE;
+        }
+        for (int[] fromCountermoves : countermoves) {
+            Arrays.fill(fromCountermoves, PackedMove.NONE);
+        }
+        for (int[][] sideHistory : history) {
+            for (int[] fromHistory : sideHistory) {
+                for (int to = 0; to < 64; to++) {
+                    fromHistory[to] /= 2;
+                }
+            }
+        }
+    }
+
+    // Pulls the entry towards the bonus, so it stays between -MAX_HISTORY and MAX_HISTORY
+    private void updateHistory(Color turn, int move, int bonus) {
+        int[] fromHistory = history[turn.ordinal()][PackedMove.getFrom(move)];
+        int to = PackedMove.getTo(move);
+        fromHistory[to] += bonus - fromHistory[to] * Math.abs(bonus) / MAX_HISTORY;
+    }
+
+    // Only a capture of a cheaper piece can lose material, so only those need an exchange evaluation
+    private static int getCaptureScore(Board board, int move) {
+        int mvvLva = getMvvLva(board, move);
+        if (PackedMove.isCapture(move) && !PackedMove.isEnPassant(move) && !PackedMove.isPromotion(move)
+                && SEE.getValue(board.getPieceAt(PackedMove.getTo(move)).getType()) < SEE.getValue(board.getPieceAt(PackedMove.getFrom(move)).getType())
+                && SEE.see(board, move) < 0) {
+            return LOSING_CAPTURE_SCORE + mvvLva;
+        }
+        return CAPTURE_SCORE + mvvLva;
+    }
+
+    // Victim value times 8 less the attacker's type, with the promotion piece counted as won material
+    private static int getMvvLva(Board board, int move) {
+        Piece attacker = board.getPieceAt(PackedMove.getFrom(move));
+        int score = 0;
+        if (PackedMove.isEnPassant(move)) {
+            score = VICTIM_VALUES[PieceType.PAWN.ordinal()] * 8;
+        } else if (PackedMove.isCapture(move)) {
+            score = VICTIM_VALUES[board.getPieceAt(PackedMove.getTo(move)).getType().ordinal()] * 8;
+        }
+        if (PackedMove.isPromotion(move)) {
+            score += VICTIM_VALUES[PackedMove.getPromotionType(move).ordinal()] * 8;
+        }
+        return score - attacker.getType().ordinal();
+    }
+}
@@ -0,0 +1,111 @@
+package com.nathanholmberg.chess.engine.search;
+
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
+import com.nathanholmberg.chess.engine.game.Board;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.PackedMove;
+
+/**
+ * Static exchange evaluation: the material a move wins or loses once every capture on its target square
+ * has been played out, each side capturing with its least valuable piece and free to stop when going on
+ * would lose more.
+ *
+ * <p>The exchange is worked out from attack sets alone, without making any moves. Pieces that have
+ * captured are lifted off an occupancy bitboard and the attackers are found again through it, so sliding
+ * pieces lined up behind them (x-rays) join in. A king only captures when nothing defends the square.
+ * Pins are not considered.</p>
+ */
+public class SEE {
+    private static final int[] VALUES = {100, 320, 330, 500, 900, 20000};
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private SEE() {}
+
+    /**
+     * Evaluates the exchange a move starts.
+     *
+     * @param board The position, before the move.
+     * @param move A legal move, as a {@link PackedMove}.
+     * @return The material won for the side making the move, in centipawns; negative when it loses material.
+     */
+    public static int see(Board board, int move) {
+        int from = PackedMove.getFrom(move);
+        int to = PackedMove.getTo(move);
+        Color side = board.getPieceAt(from).getColor();
+        long occupied = board.getOccupancy() & ~(1L << from);
+
+        // The first capture
+        int[] gain = new int[32];
+        int onSquare = VALUES[board.getPieceAt(from).getType().ordinal()];
+        if (PackedMove.isEnPassant(move)) {
+            gain[0] = VALUES[PieceType.PAWN.ordinal()];
+            occupied &= ~(1L << (side == Color.WHITE ? to - 8 : to + 8));
+        } else if (PackedMove.isCapture(move)) {
+            gain[0] = VALUES[board.getPieceAt(to).getType().ordinal()];
+        }
+        if (PackedMove.isPromotion(move)) {
+            onSquare = VALUES[PackedMove.getPromotionType(move).ordinal()];
+            gain[0] += onSquare - VALUES[PieceType.PAWN.ordinal()];
+        }
+
+        // Each side recaptures with its least valuable attacker
+        int d = 0;
+        side = side.inverse();
+        long attackers = (board.getAttackers(to, Color.WHITE, occupied) | board.getAttackers(to, Color.BLACK, occupied)) & occupied;
+        while (true) {
+            // What the side would have if it recaptured, found before knowing whether it can
+            d++;
+            gain[d] = onSquare - gain[d - 1];
+            if (Math.max(-gain[d - 1], gain[d]) < 0) { break; }
+
+            long sideAttackers = attackers & board.getOccupancy(side);
+            if (sideAttackers == 0) { break; }
+            PieceType type = PieceType.KING;
+            long attacker = 0;
+            for (PieceType candidate : TYPES) {
+                attacker = sideAttackers & board.getPieceBitboard(side, candidate);
+                if (attacker != 0) {
+                    type = candidate;
+                    break;
+                }
+            }
+            attacker &= -attacker;
+
+            // A king cannot capture onto a defended square
+            if (type == PieceType.KING && (board.getAttackers(to, side.inverse(), occupied & ~attacker) & occupied & ~attacker) != 0) {
+                break;
+            }
+
+            onSquare = VALUES[type.ordinal()];
+            occupied &= ~attacker;
+            attackers = (board.getAttackers(to, Color.WHITE, occupied) | board.getAttackers(to, Color.BLACK, occupied)) & occupied;
+            side = side.inverse();
+        }
+
+        // Either side stops capturing when that is better for it
+        while (--d > 0) {
+            gain[d - 1] = -Math.max(-gain[d - 1], gain[d]);
+        }
+        return gain[0];
+    }
+
+    /**
+     * Evaluates the exchange a move starts in a game's current position.
+     *
+     * @param chessGame The game, before the move.
+     * @param move A legal move.
+     * @return The material won for the side making the move, in centipawns; negative when it loses material.
+     */
+    public static int see(ChessGame chessGame, Move move) {
+        return see(chessGame.board, PackedMove.fromMove(move, chessGame.board));
+    }
+
+    /**
+     * Returns the value SEE counts a piece as, in centipawns.
+     */
+    public static int getValue(PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+}
@@ -0,0 +1,210 @@
+package com.nathanholmberg.chess.engine.search;
+
+import java.util.Arrays;
+
+/**
+ * A hash table of searched positions, shared by every thread of a search without locks.
+ *
+ * <p>Entries live in one {@code long[]}, two longs per slot: the position's Zobrist key XORed with the
+ * data, then the data. A reader accepts a slot only when the two XOR back to its key, so a slot torn by
+ * two threads writing at once reads as a miss instead of as another position's data. Nothing is
+ * allocated per entry, so millions of entries cost the garbage collector nothing. The data packs the
+ * best move, the score, the depth, the bound type and the search it was stored in:</p>
+ * <ul>
+ *   <li>Bits 0-15: the best move, as a {@link com.nathanholmberg.chess.engine.types.PackedMove}.</li>
+ *   <li>Bits 16-31: the score, signed.</li>
+ *   <li>Bits 32-39: the depth searched.</li>
+ *   <li>Bits 40-41: the bound type, never 0, so a stored entry is never all zeros.</li>
+ *   <li>Bits 42-47: the age, the number of the search that stored it.</li>
+ * </ul>
+ *
+ * <p>Slots are grouped in buckets of {@value #BUCKET_SIZE}. A bucket is 64 bytes, so a lookup touches one
+ * or two cache lines: the JVM only aligns arrays to 8 bytes, so buckets seldom start on a line. A position
+ * can go in any slot of its bucket. When the bucket is full the entry replaced is the one worth least:
+ * entries from earlier searches first, then the shallowest. Call {@link #newSearch()} before each search
+ * so old entries age.</p>
+ *
+ * <p>Perft can use a table too, through {@link #probeCount} and {@link #storeCount}, which keep a node count
+ * in place of the data. A table should hold one kind of entry or the other.</p>
+ */
+public class TranspositionTable {
+    public static final int UPPER_BOUND = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int EXACT = 3;
+    public static final long NO_ENTRY = 0L;
+    public static final int BUCKET_SIZE = 4;
+
+    private static final int AGE_MASK = 0x3F;
+    private static final long MAX_LONGS = 1L << 30;
+    private static final long DEPTH_KEY = 0x9E3779B97F4A7C15L;
+
+    private final long[] slots;
+    private final int bucketMask;
+    private int age;
+
+    /**
+     * Creates a table of about {@code sizeMB} megabytes, rounded down to a power of two buckets.
+     *
+     * @param sizeMB The size in megabytes, from 1 to 8192.
+     */
+    public TranspositionTable(int sizeMB) {
+        if (sizeMB < 1 || sizeMB > 8192) {
+            throw new IllegalArgumentException("Invalid size: " + sizeMB + " MB. Size must be between 1 and 8192 MB.");
+        }
+        long longs = Math.min(Long.highestOneBit(sizeMB * 1024L * 1024L / Long.BYTES), MAX_LONGS);
+        this.slots = new long[(int) longs];
+        this.bucketMask = (int) (longs / (BUCKET_SIZE * 2)) - 1;
+    }
+
+    /**
+     * Starts a new search, so the entries stored so far count as old when choosing what to replace.
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key The position's Zobrist key, with the side to move.
+     * @return The entry's data, or {@link #NO_ENTRY} when the position is not stored.
+     */
+    public long probe(long key) {
+        int bucket = bucket(key);
+        for (int slot = bucket; slot < bucket + BUCKET_SIZE * 2; slot += 2) {
+            long data = slots[slot + 1];
+            if ((slots[slot] ^ data) == key && data != NO_ENTRY) {
+                return data;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    /**
+     * Stores a position. When the position is already stored from this search with a greater depth, an
+     * exact score still replaces it but a bound does not. When it is stored without a move, the old move
+     * is kept.
+     *
+     * @param key The position's Zobrist key, with the side to move.
+     * @param move The best move, or {@code PackedMove.NONE}.
+     * @param score The score, between -32768 and 32767.
+     * @param depth The depth searched, from 0 to 255.
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int bucket = bucket(key);
+        int victim = bucket;
+        int victimWorth = Integer.MAX_VALUE;
+        for (int slot = bucket; slot < bucket + BUCKET_SIZE * 2; slot += 2) {
+            long old = slots[slot + 1];
+
+            // Same Position
+            if ((slots[slot] ^ old) == key && old != NO_ENTRY) {
+                if (getAge(old) == age && getDepth(old) > depth && bound != EXACT) {
+                    return;
+                }
+                if (move == 0) {
+                    move = getMove(old);
+                }
+                victim = slot;
+                break;
+            }
+
+            // Empty slots first, then old searches, then shallow entries
+            int worth = old == NO_ENTRY ? Integer.MIN_VALUE : getDepth(old) - 8 * ((age - getAge(old)) & AGE_MASK);
+            if (worth < victimWorth) {
+                victim = slot;
+                victimWorth = worth;
+            }
+        }
+
+        long data = (move & 0xFFFFL) | (score & 0xFFFFL) << 16 | (long) (depth & 0xFF) << 32
+                | (long) bound << 40 | (long) age << 42;
+        slots[victim] = key ^ data;
+        slots[victim + 1] = data;
+    }
+
+    /**
+     * Looks up the perft node count of a position.
+     *
+     * @param key The position's Zobrist key, with the side to move.
+     * @param depth The depth counted to.
+     * @return The node count, or -1 when it is not stored.
+     */
+    public long probeCount(long key, int depth) {
+        long countKey = key ^ DEPTH_KEY * depth;
+        int bucket = bucket(countKey);
+        for (int slot = bucket; slot < bucket + BUCKET_SIZE * 2; slot += 2) {
+            long count = slots[slot + 1];
+            if ((slots[slot] ^ count) == countKey && count != 0) {
+                return count - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores the perft node count of a position, replacing the smallest count in its bucket, which is the
+     * cheapest to count again.
+     *
+     * @param key The position's Zobrist key, with the side to move.
+     * @param depth The depth counted to.
+     * @param count The node count.
+     */
+    public void storeCount(long key, int depth, long count) {
+        long countKey = key ^ DEPTH_KEY * depth;
+        int bucket = bucket(countKey);
+        int victim = bucket;
+        long victimCount = Long.MAX_VALUE;
+        for (int slot = bucket; slot < bucket + BUCKET_SIZE * 2; slot += 2) {
+            long old = slots[slot + 1];
+            if ((slots[slot] ^ old) == countKey) {
+                victim = slot;
+                break;
+            }
+            if (old < victimCount) {
+                victim = slot;
+                victimCount = old;
+            }
+        }
+
+        // Stored one higher so an empty slot never holds a count
+        slots[victim] = countKey ^ (count + 1);
+        slots[victim + 1] = count + 1;
+    }
+
+    /**
+     * Estimates how full the table is, in permille, from the entries of this search in the first buckets.
+     */
+    public int getHashfull() {
+        int sampled = Math.min(slots.length / 2, 1000);
+        int used = 0;
+        for (int i = 0; i < sampled; i++) {
+            long data = slots[i * 2 + 1];
+            if (data != NO_ENTRY && getAge(data) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sampled;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0L);
+        age = 0;
+    }
+
+    public int getSizeMB() {
+        return (int) ((long) slots.length * Long.BYTES / (1024 * 1024));
+    }
+
+    private int bucket(long key) {
+        return ((int) key & bucketMask) * (BUCKET_SIZE * 2);
+    }
+
+    // Entry Fields
+    public static int getMove(long data) { return (int) (data & 0xFFFF); }
+    public static int getScore(long data) { return (short) (data >>> 16); }
+    public static int getDepth(long data) { return (int) (data >>> 32) & 0xFF; }
+    public static int getBound(long data) { return (int) (data >>> 40) & 0x3; }
+    public static int getAge(long data) { return (int) (data >>> 42) & AGE_MASK; }
+}
@@ -0,0 +1,235 @@
+package com.nathanholmberg.chess.engine.tools;
+
+import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.utils.PGN;
+import com.nathanholmberg.chess.engine.utils.PGNReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Imports and validates every game of a PGN file in parallel.
+ *
+ * <p>The file is memory-mapped with {@link FileChannel#map} and split into games at each {@code [Event}
+ * found at the start of a line, without decoding anything. The games are then read with
+ * {@link PGNReader} and played with {@link PGN#playGame} on a {@link ForkJoinPool}, a run of games per
+ * task, each game replayed once by the worker thread that picked it up. Games are handed to the consumer
+ * in the order they appear in the file, a batch at a time, so only one batch of games is held at once.</p>
+ *
+ * <p>Files over 2 GB are mapped in regions, each region starting at the last game boundary of the one
+ * before it.</p>
+ *
+ * <p>Run from the command line as {@code PGNImport <file.pgn> [threads]} to print the number of valid
+ * and invalid games and the throughput.</p>
+ */
+public class PGNImport {
+    private static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+    private static final int BATCH_SIZE = 4096;
+    private static final int TASK_SIZE = 32;
+    private static final byte[] EVENT = "[Event".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * A game from the file.
+     *
+     * @param index The game's position in the file, from 0.
+     * @param offset The byte offset of the text the game was read from.
+     * @param game The game as read, or {@code null} when its text could not be read.
+     * @param chessGame The game played out, or {@code null} when it is not valid.
+     * @param error Why the game is not valid, or {@code null} when it is.
+     */
+    public record Result(long index, long offset, PGNReader.Game game, ChessGame chessGame, String error) {
+        public boolean isValid() { return error == null; }
+    }
+
+    public static long importFile(Path path, Consumer<Result> consumer) throws IOException {
+        return importFile(path, consumer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads and plays every game in the file on {@code pool}, handing them to {@code consumer} in file order.
+     * The consumer is called on the calling thread.
+     *
+     * @param path The PGN file.
+     * @param consumer Receives each game.
+     * @param pool The pool to read and play the games on.
+     * @return The number of games.
+     * @throws IOException If the file cannot be read, or a single game is larger than a mapped region.
+     */
+    public static long importFile(Path path, Consumer<Result> consumer, ForkJoinPool pool) throws IOException {
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long regionStart = 0;
+            while (regionStart < size) {
+                long regionSize = Math.min(size - regionStart, MAX_REGION_SIZE);
+                boolean lastRegion = regionStart + regionSize == size;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionSize);
+
+                // The text after the last boundary may be cut off unless this is the last region
+                int[] starts = findGameStarts(buffer);
+                int sliceCount = lastRegion ? starts.length : starts.length - 1;
+                if (sliceCount == 0) {
+                    throw new IOException("Game at offset " + regionStart + " is larger than " + MAX_REGION_SIZE + " bytes.");
+                }
+
+                // Batches, in order
+                for (int batchStart = 0; batchStart < sliceCount; batchStart += BATCH_SIZE) {
+                    int batchEnd = Math.min(sliceCount, batchStart + BATCH_SIZE);
+                    List<List<Result>> results = new ArrayList<>(batchEnd - batchStart);
+                    for (int i = batchStart; i < batchEnd; i++) {
+                        results.add(null);
+                    }
+                    pool.invoke(new SliceTask(buffer, regionStart, starts, batchStart, batchStart, batchEnd, results));
+
+                    for (List<Result> sliceResults : results) {
+                        for (Result result : sliceResults) {
+                            consumer.accept(new Result(count++, result.offset(), result.game(), result.chessGame(), result.error()));
+                        }
+                    }
+                }
+
+                regionStart += lastRegion ? regionSize : starts[sliceCount];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the offsets of every {@code [Event} at the start of a line, and 0 for the text before the first.
+     */
+    private static int[] findGameStarts(MappedByteBuffer buffer) {
+        int[] starts = new int[1024];
+        int count = 1;
+        int limit = buffer.limit() - EVENT.length;
+        for (int position = 1; position <= limit; position++) {
+            if (buffer.get(position) != '[' || buffer.get(position - 1) != '\n') { continue; }
+            if (!startsWithEvent(buffer, position)) { continue; }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = position;
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static boolean startsWithEvent(MappedByteBuffer buffer, int position) {
+        for (int i = 1; i < EVENT.length; i++) {
+            if (buffer.get(position + i) != EVENT[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads and plays the games of one slice of the file. A slice usually holds one game,
+     * but holds more when games are missing their Event tag, and none when it is only a preamble.
+     * A game that cannot be read is reported, and reading goes on from the next tag pair.
+     */
+    private static List<Result> importSlice(MappedByteBuffer buffer, long regionStart, int start, int end) {
+        long offset = regionStart + start;
+        List<Result> results = new ArrayList<>(1);
+
+        // Decoded straight from the mapped file into a buffer the size of the slice, and read in place
+        PGNReader reader = new PGNReader(StandardCharsets.UTF_8.decode(buffer.slice(start, end - start)));
+        try {
+            while (true) {
+                PGNReader.Game game;
+                try {
+                    game = reader.readGame();
+                } catch (IllegalNotationException e) {
+                    results.add(new Result(-1, offset, null, null, e.getMessage()));
+                    reader.skipToNextTag();
+                    continue;
+                }
+                if (game == null) { break; }
+
+                try {
+                    results.add(new Result(-1, offset, game, PGN.playGame(game), null));
+                } catch (RuntimeException e) {
+                    results.add(new Result(-1, offset, game, null, e.getMessage()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return results;
+    }
+
+    // Splits a range of slices until each task holds a short run of them
+    private static class SliceTask extends RecursiveAction {
+        private final MappedByteBuffer buffer;
+        private final long regionStart;
+        private final int[] starts;
+        private final int batchStart;
+        private final int from;
+        private final int to;
+        private final List<List<Result>> results;
+
+        private SliceTask(MappedByteBuffer buffer, long regionStart, int[] starts, int batchStart, int from, int to, List<List<Result>> results) {
+            this.buffer = buffer;
+            this.regionStart = regionStart;
+            this.starts = starts;
+            this.batchStart = batchStart;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > TASK_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SliceTask(buffer, regionStart, starts, batchStart, from, middle, results),
+                        new SliceTask(buffer, regionStart, starts, batchStart, middle, to, results));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                int end = i + 1 < starts.length ? starts[i + 1] : buffer.limit();
+                results.set(i - batchStart, importSlice(buffer, regionStart, starts[i], end));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: PGNImport <file.pgn> [threads]");
+            return;
+        }
+
+        Path path = Path.of(args[0]);
+        ForkJoinPool pool = args.length > 1 ? new ForkJoinPool(Integer.parseInt(args[1])) : ForkJoinPool.commonPool();
+
+        // Import, printing the first few invalid games
+        long[] invalid = {0};
+        long startTime = System.nanoTime();
+        long games = importFile(path, result -> {
+            if (!result.isValid() && invalid[0]++ < 10) {
+                System.out.println("Game " + result.index() + " at offset " + result.offset() + ": " + result.error());
+            }
+        }, pool);
+        long endTime = System.nanoTime();
+
+        // Print
+        double seconds = (endTime - startTime) / 1_000_000_000.0;
+        double megabytes = Files.size(path) / (1024.0 * 1024.0);
+        System.out.println("Games: " + games + " (" + (games - invalid[0]) + " valid, " + invalid[0] + " invalid)");
+        System.out.println("Execution time (ms): " + (endTime - startTime) / 1_000_000.0);
+        System.out.println("Games per second: " + (long) (games / seconds));
+        System.out.println("MB per second: " + String.format("%.1f", megabytes / seconds));
+    }
+}
@@ -0,0 +1,257 @@
+package com.nathanholmberg.chess.engine.tools;
+
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.game.Board;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.game.MoveGenerator;
+import com.nathanholmberg.chess.engine.search.TranspositionTable;
+import com.nathanholmberg.chess.engine.types.MoveList;
+import com.nathanholmberg.chess.engine.types.PackedMove;
+import com.nathanholmberg.chess.engine.utils.FEN;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth (perft).
+ *
+ * <p>Perft is the standard check for a move generator: the node counts of well known positions are
+ * published, and any missing or extra move shows up as a wrong count. {@link #divide} breaks the count
+ * down by root move, which narrows a wrong count down to the move that causes it.</p>
+ *
+ * <p>The search plays moves with {@link Board#makeMove(int)} and {@link Board#unmakeMove(long)} on one
+ * board and reuses one {@link MoveList} per ply. At the last ply the legal moves are counted rather
+ * than played. {@link #perftParallel} gives each root move its own copy of the board and runs them on a
+ * {@link ForkJoinPool}.</p>
+ *
+ * <p>Given a {@link TranspositionTable}, the count below each position of two or more plies is cached by
+ * its Zobrist key, so positions reached by more than one move order are counted once. The table is
+ * lock-free, so parallel counts share it.</p>
+ *
+ * <p>Run from the command line as {@code Perft "<fen>" <depth> [--parallel] [--hash <MB>]} to print the
+ * divide and the nodes per second.</p>
+ */
+public class Perft {
+    /**
+     * Counts the leaf nodes {@code depth} plies below the game's current position.
+     *
+     * @param chessGame The game to count from. Its board is left as it was.
+     * @param depth The number of plies to search.
+     * @return The number of leaf nodes.
+     */
+    public static long perft(ChessGame chessGame, int depth) {
+        return perft(chessGame.board, chessGame.getTurn(), depth, createMoveLists(depth), null);
+    }
+
+    /**
+     * Counts the same nodes as {@link #perft(ChessGame, int)}, caching counts in {@code table}.
+     */
+    public static long perft(ChessGame chessGame, int depth, TranspositionTable table) {
+        return perft(chessGame.board, chessGame.getTurn(), depth, createMoveLists(depth), table);
+    }
+
+    public static long perft(String fen, int depth) {
+        return perft(FEN.getGame(fen), depth);
+    }
+
+    /**
+     * Counts the leaf nodes below each root move, in long algebraic notation (e.g. "e2e4").
+     *
+     * @param chessGame The game to count from. Its board is left as it was.
+     * @param depth The number of plies to search, including the root move.
+     * @return The count for each root move, in generation order.
+     */
+    public static Map<String, Long> divide(ChessGame chessGame, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Invalid depth: " + depth + ". Divide needs a depth of at least 1.");
+        }
+
+        Board board = chessGame.board;
+        Color turn = chessGame.getTurn();
+        MoveList[] moveLists = createMoveLists(depth);
+        MoveList moves = moveLists[depth];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(board, turn, moves);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            long undo = board.makeMove(move);
+            counts.put(PackedMove.toString(move), perft(board, turn.inverse(), depth - 1, moveLists, null));
+            board.unmakeMove(undo);
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the same nodes as {@link #perft(ChessGame, int)}, with each root move searched as its own
+     * task on the common {@link ForkJoinPool}.
+     */
+    public static long perftParallel(ChessGame chessGame, int depth) {
+        return perftParallel(chessGame, depth, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Counts the same nodes as {@link #perft(ChessGame, int)}, with each root move searched as its own
+     * task on {@code pool}. Every task works on its own copy of the board.
+     *
+     * @param chessGame The game to count from. Its board is not touched.
+     * @param depth The number of plies to search.
+     * @param pool The pool to run the root moves on.
+     * @return The number of leaf nodes.
+     */
+    public static long perftParallel(ChessGame chessGame, int depth, ForkJoinPool pool) {
+        return perftParallel(chessGame, depth, pool, null);
+    }
+
+    /**
+     * Counts the same nodes as {@link #perftParallel(ChessGame, int, ForkJoinPool)}, with every task
+     * caching counts in the one {@code table}, or none when it is {@code null}.
+     */
+    public static long perftParallel(ChessGame chessGame, int depth, ForkJoinPool pool, TranspositionTable table) {
+        if (depth < 2) {
+            return perft(chessGame, depth, table);
+        }
+        return pool.invoke(new RootTask(chessGame.board, chessGame.getTurn(), depth, table));
+    }
+
+    private static long perft(Board board, Color turn, int depth, MoveList[] moveLists, TranspositionTable table) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        // Cached Count
+        long key = 0;
+        if (table != null && depth >= 2) {
+            key = board.getZobristKey(turn);
+            long count = table.probeCount(key, depth);
+            if (count >= 0) {
+                return count;
+            }
+        }
+
+        MoveList moves = moveLists[depth];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(board, turn, moves);
+
+        // Bulk count the last ply
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            long undo = board.makeMove(moves.get(i));
+            nodes += perft(board, turn.inverse(), depth - 1, moveLists, table);
+            board.unmakeMove(undo);
+        }
+        if (table != null) {
+            table.storeCount(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    private static MoveList[] createMoveLists(int depth) {
+        MoveList[] moveLists = new MoveList[Math.max(depth, 0) + 1];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return moveLists;
+    }
+
+    // Splits the root moves into one task each
+    private static class RootTask extends RecursiveTask<Long> {
+        private final Board board;
+        private final Color turn;
+        private final int depth;
+        private final TranspositionTable table;
+
+        private RootTask(Board board, Color turn, int depth, TranspositionTable table) {
+            this.board = board;
+            this.turn = turn;
+            this.depth = depth;
+            this.table = table;
+        }
+
+        @Override
+        protected Long compute() {
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegalMoves(board, turn, moves);
+
+            List<MoveTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                tasks.add(new MoveTask(board.getDeepCopy(), turn, moves.get(i), depth, table));
+            }
+            invokeAll(tasks);
+
+            long nodes = 0;
+            for (MoveTask task : tasks) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    private static class MoveTask extends RecursiveTask<Long> {
+        private final Board board;
+        private final Color turn;
+        private final int move;
+        private final int depth;
+        private final TranspositionTable table;
+
+        private MoveTask(Board board, Color turn, int move, int depth, TranspositionTable table) {
+            this.board = board;
+            this.turn = turn;
+            this.move = move;
+            this.depth = depth;
+            this.table = table;
+        }
+
+        @Override
+        protected Long compute() {
+            board.makeMove(move);
+            return perft(board, turn.inverse(), depth - 1, createMoveLists(depth - 1), table);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: Perft \"<fen>\" <depth> [--parallel] [--hash <MB>]");
+            return;
+        }
+
+        ChessGame chessGame = FEN.getGame(args[0]);
+        int depth = Integer.parseInt(args[1]);
+        boolean parallel = false;
+        TranspositionTable table = null;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--parallel")) {
+                parallel = true;
+            } else if (args[i].equals("--hash") && i + 1 < args.length) {
+                table = new TranspositionTable(Integer.parseInt(args[++i]));
+            }
+        }
+
+        // Divide
+        if (!parallel) {
+            for (Map.Entry<String, Long> entry : divide(chessGame, depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+            }
+        }
+
+        // Time the full count
+        long startTime = System.nanoTime();
+        long nodes = parallel ? perftParallel(chessGame, depth, ForkJoinPool.commonPool(), table) : perft(chessGame, depth, table);
+        long endTime = System.nanoTime();
+
+        // Print
+        double seconds = (endTime - startTime) / 1_000_000_000.0;
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Execution time (ms): " + (endTime - startTime) / 1_000_000.0);
+        System.out.println("Nodes per second: " + (long) (nodes / seconds));
+    }
+}
@@ -1,67 +1,81 @@
 package com.nathanholmberg.chess.engine.types;
 
 import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
 import com.nathanholmberg.chess.engine.game.Board;
-import com.nathanholmberg.chess.engine.pieces.Piece;
-import com.nathanholmberg.chess.engine.pieces.Rook;
 
+import java.util.Arrays;
+
+/**
+ * The castling rights of both sides, stored as a 4-bit mask.
+ *
+ * <p>Each right is one bit ({@link #WHITE_KING_SIDE}, {@link #WHITE_QUEEN_SIDE}, {@link #BLACK_KING_SIDE},
+ * {@link #BLACK_QUEEN_SIDE}), so the whole set fits in an undo record and indexes the Zobrist castling keys
+ * directly. A move updates the rights with {@link #update(int, int)}: a precomputed per-square table gives
+ * the rights lost when a piece leaves or lands on that square, so no move needs to look at the board.</p>
+ */
 public class CastlingRights {
-    private boolean whiteKingSide;
-    private boolean whiteQueenSide;
-    private boolean blackKingSide;
-    private boolean blackQueenSide;
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int ALL = 15;
+
+    // Rights kept when a piece leaves or lands on each square
+    private static final int[] KEPT_BY_SQUARE = new int[64];
+    static {
+        Arrays.fill(KEPT_BY_SQUARE, ALL);
+        KEPT_BY_SQUARE[4] = ALL & ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        KEPT_BY_SQUARE[0] = ALL & ~WHITE_QUEEN_SIDE;
+        KEPT_BY_SQUARE[7] = ALL & ~WHITE_KING_SIDE;
+        KEPT_BY_SQUARE[60] = ALL & ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        KEPT_BY_SQUARE[56] = ALL & ~BLACK_QUEEN_SIDE;
+        KEPT_BY_SQUARE[63] = ALL & ~BLACK_KING_SIDE;
+    }
+
+    private int bits;
 
     public CastlingRights() {
-        this.whiteKingSide = true;
-        this.whiteQueenSide = true;
-        this.blackKingSide = true;
-        this.blackQueenSide = true;
+        this.bits = ALL;
+    }
+
+    public CastlingRights(int bits) {
+        this.bits = bits & ALL;
     }
 
     public CastlingRights getDeepCopy() {
-        CastlingRights copy = new CastlingRights();
-        copy.setWhiteKingSide(whiteKingSide);
-        copy.setWhiteQueenSide(whiteQueenSide);
-        copy.setBlackKingSide(blackKingSide);
-        copy.setBlackQueenSide(blackQueenSide);
-        return copy;
+        return new CastlingRights(bits);
     }
 
-    // Getters
-    public boolean isWhiteKingSide() { return whiteKingSide; }
-    public boolean isWhiteQueenSide() { return whiteQueenSide; }
-    public boolean isBlackKingSide() { return blackKingSide; }
-    public boolean isBlackQueenSide() { return blackQueenSide; }
-    public boolean isNone() {
-        if (isWhiteKingSide()) return false;
-        if (isWhiteQueenSide()) return false;
-        if (isBlackKingSide()) return false;
-        return !isBlackQueenSide();
+    /**
+     * Removes the rights lost by a move from {@code from} to {@code to}: moving a king loses both of its
+     * rights, and moving or capturing a rook on its starting square loses that side's right.
+     *
+     * @param from The square the piece left.
+     * @param to The square the piece landed on.
+     */
+    public void update(int from, int to) {
+        bits &= KEPT_BY_SQUARE[from] & KEPT_BY_SQUARE[to];
     }
 
+    // Getters
+    public int getBits() { return bits; }
+    public boolean isWhiteKingSide() { return (bits & WHITE_KING_SIDE) != 0; }
+    public boolean isWhiteQueenSide() { return (bits & WHITE_QUEEN_SIDE) != 0; }
+    public boolean isBlackKingSide() { return (bits & BLACK_KING_SIDE) != 0; }
+    public boolean isBlackQueenSide() { return (bits & BLACK_QUEEN_SIDE) != 0; }
+    public boolean isNone() { return bits == 0; }
+
     public boolean isCastlingAllowed(Color color, boolean kingSide) {
-        if (color == Color.WHITE) {
-            if (kingSide) {
-                return isWhiteKingSide();
-            } else {
-                return isWhiteQueenSide();
-            }
-        }
-        if (color == Color.BLACK) {
-            if (kingSide) {
-                return isBlackKingSide();
-            } else {
-                return isBlackQueenSide();
-            }
-        }
-        return false;
+        return (bits & getBit(color, kingSide)) != 0;
     }
 
     // Setters
-    public void setWhiteKingSide(boolean whiteKingSide) { this.whiteKingSide = whiteKingSide; }
-    public void setWhiteQueenSide(boolean whiteQueenSide) { this.whiteQueenSide = whiteQueenSide; }
-    public void setBlackKingSide(boolean blackKingSide) { this.blackKingSide = blackKingSide; }
-    public void setBlackQueenSide(boolean blackQueenSide) { this.blackQueenSide = blackQueenSide; }
+    public void setBits(int bits) { this.bits = bits & ALL; }
+    public void setWhiteKingSide(boolean whiteKingSide) { set(WHITE_KING_SIDE, whiteKingSide); }
+    public void setWhiteQueenSide(boolean whiteQueenSide) { set(WHITE_QUEEN_SIDE, whiteQueenSide); }
+    public void setBlackKingSide(boolean blackKingSide) { set(BLACK_KING_SIDE, blackKingSide); }
+    public void setBlackQueenSide(boolean blackQueenSide) { set(BLACK_QUEEN_SIDE, blackQueenSide); }
 
     /**
      * Verifies and adjusts castling rights based on the current board state.
@@ -71,37 +85,40 @@ public class CastlingRights {
      * @param board The chess board to verify against.
      */
     public void correctRights(Board board) {
-        // Check for White King
-        if (!board.getKingPosition(Color.WHITE).equals("e1")) {
-            setWhiteKingSide(false);
-            setWhiteQueenSide(false);
-        }
-        // Check for Black King
-        if (!board.getKingPosition(Color.BLACK).equals("e8")) {
-            setBlackKingSide(false);
-            setBlackQueenSide(false);
-        }
+        long whiteKings = board.getPieceBitboard(Color.WHITE, PieceType.KING);
+        long blackKings = board.getPieceBitboard(Color.BLACK, PieceType.KING);
+        long whiteRooks = board.getPieceBitboard(Color.WHITE, PieceType.ROOK);
+        long blackRooks = board.getPieceBitboard(Color.BLACK, PieceType.ROOK);
 
-        // Check for White Queen's Rook
-        Piece whiteQueenRook = board.getPieceAt(Position.fromAlgebraic("a1"));
-        if (!(whiteQueenRook instanceof Rook && whiteQueenRook.getColor() == Color.WHITE)) {
-            setWhiteQueenSide(false);
-        }
-        // Check for White King's Rook
-        Piece whiteKingRook = board.getPieceAt(Position.fromAlgebraic("h1"));
-        if (!(whiteKingRook instanceof Rook && whiteKingRook.getColor() == Color.WHITE)) {
-            setWhiteKingSide(false);
-        }
+        // Kings on e1 and e8
+        if ((whiteKings & (1L << 4)) == 0) { bits &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE); }
+        if ((blackKings & (1L << 60)) == 0) { bits &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE); }
 
-        // Check for Black Queen's Rook
-        Piece blackQueenRook = board.getPieceAt(Position.fromAlgebraic("a8"));
-        if (!(blackQueenRook instanceof Rook && blackQueenRook.getColor() == Color.BLACK)) {
-            setBlackQueenSide(false);
-        }
-        // Check for Black King's Rook
-        Piece blackKingRook = board.getPieceAt(Position.fromAlgebraic("h8"));
-        if (!(blackKingRook instanceof Rook && blackKingRook.getColor() == Color.BLACK)) {
-            setBlackKingSide(false);
+        // Rooks in the corners
+        if ((whiteRooks & (1L << 7)) == 0) { bits &= ~WHITE_KING_SIDE; }
+        if ((whiteRooks & 1L) == 0) { bits &= ~WHITE_QUEEN_SIDE; }
+        if ((blackRooks & (1L << 63)) == 0) { bits &= ~BLACK_KING_SIDE; }
+        if ((blackRooks & (1L << 56)) == 0) { bits &= ~BLACK_QUEEN_SIDE; }
+    }
+
+    public static int getBit(Color color, boolean kingSide) {
+        if (color == Color.WHITE) {
+            return kingSide ? WHITE_KING_SIDE : WHITE_QUEEN_SIDE;
         }
+        return kingSide ? BLACK_KING_SIDE : BLACK_QUEEN_SIDE;
+    }
+
+    private void set(int bit, boolean allowed) {
+        bits = allowed ? bits | bit : bits & ~bit;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CastlingRights other && other.bits == bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return bits;
     }
 }
@@ -3,6 +3,16 @@ package com.nathanholmberg.chess.engine.types;
 import com.nathanholmberg.chess.engine.exceptions.IllegalMoveException;
 
 public record Move(Position initialPosition, Position finalPosition, char promotionPiece) {
+    // One shared instance per non-promotion move, indexed by initial * 64 + final square
+    private static final Move[] MOVES = new Move[64 * 64];
+    static {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                MOVES[from * 64 + to] = new Move(Position.of(from), Position.of(to), '\0');
+            }
+        }
+    }
+
     public Move(Position initialPosition, Position finalPosition, char promotionPiece) {
         this.initialPosition = initialPosition;
         this.finalPosition = finalPosition;
@@ -12,6 +22,33 @@ public record Move(Position initialPosition, Position finalPosition, char promot
         }
     }
 
+    /**
+     * Returns the shared move between two positions with no promotion piece.
+     *
+     * @param initialPosition The position to move from.
+     * @param finalPosition The position to move to.
+     * @return The cached move.
+     */
+    public static Move of(Position initialPosition, Position finalPosition) {
+        return MOVES[initialPosition.index() * 64 + finalPosition.index()];
+    }
+
+    /**
+     * Returns a move between two positions. Moves without a promotion piece are shared,
+     * promotions are created as needed.
+     *
+     * @param initialPosition The position to move from.
+     * @param finalPosition The position to move to.
+     * @param promotionPiece The promotion piece, or '\0' for none.
+     * @return The move.
+     */
+    public static Move of(Position initialPosition, Position finalPosition, char promotionPiece) {
+        if (promotionPiece == '\0') {
+            return of(initialPosition, finalPosition);
+        }
+        return new Move(initialPosition, finalPosition, promotionPiece);
+    }
+
     public String toString() {
         return initialPosition.toString() + " -> " + finalPosition.toString() + " (" + promotionPiece + ")";
     }
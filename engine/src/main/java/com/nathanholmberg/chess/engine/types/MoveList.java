@@ -0,0 +1,102 @@
+package com.nathanholmberg.chess.engine.types;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A growable list of {@link PackedMove packed moves} backed by an {@code int[]}.
+ * Meant to be created once and cleared between positions, so generating moves allocates nothing.
+ */
+public class MoveList {
+    // No chess position has more than 218 legal moves
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this.moves = new int[DEFAULT_CAPACITY];
+        this.size = 0;
+    }
+
+    // Getters
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Invalid index for move list: " + index);
+        }
+        return moves[index];
+    }
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int move) {
+        return indexOf(move) != -1;
+    }
+
+    public int indexOf(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) { return i; }
+        }
+        return -1;
+    }
+
+    // Setters
+    public void add(int move) {
+        if (size == moves.length) {
+            int[] grown = new int[moves.length * 2];
+            System.arraycopy(moves, 0, grown, 0, size);
+            moves = grown;
+        }
+        moves[size++] = move;
+    }
+
+    public void set(int index, int move) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Invalid index for move list: " + index);
+        }
+        moves[index] = move;
+    }
+
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sorts the moves by their packed value, no matter what order they were generated in. Since
+     * {@link PackedMove#encode} puts the flags in the high bits and the from square in the low bits, that
+     * orders them by flags, then to square, then from square.
+     */
+    public void sort() {
+        Arrays.sort(moves, 0, size);
+    }
+
+    /**
+     * Converts the list into {@link Move} records, for the public API and protocol.
+     *
+     * @return A new list of moves in the same order.
+     */
+    public List<Move> toMoves() {
+        List<Move> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(PackedMove.toMove(moves[i]));
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) { sb.append(", "); }
+            sb.append(PackedMove.toString(moves[i]));
+        }
+        return sb.append("]").toString();
+    }
+}
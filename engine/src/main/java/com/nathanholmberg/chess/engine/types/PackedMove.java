@@ -0,0 +1,139 @@
+package com.nathanholmberg.chess.engine.types;
+
+import com.nathanholmberg.chess.engine.enums.PieceType;
+import com.nathanholmberg.chess.engine.game.Board;
+import com.nathanholmberg.chess.engine.pieces.Piece;
+
+/**
+ * Helpers for moves packed into the low 16 bits of an {@code int}, used where {@link Move} records
+ * would be allocated millions of times (move generation, search, perft).
+ *
+ * <p>Layout: bits 0-5 hold the initial square, bits 6-11 the final square and bits 12-15 the flags.
+ * Squares are indexed as in {@link Position#index()}. The flags follow the usual from-to-flags scheme:</p>
+ * <ul>
+ *   <li>0: quiet move, 1: double pawn push, 2: king side castle, 3: queen side castle</li>
+ *   <li>4: capture, 5: en passant capture</li>
+ *   <li>8-11: promotion to a knight, bishop, rook or queen; 12-15: the same with a capture</li>
+ * </ul>
+ */
+public class PackedMove {
+    public static final int NONE = 0;
+
+    // Flags
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+    public static final int KNIGHT_PROMOTION = 8;
+    public static final int BISHOP_PROMOTION = 9;
+    public static final int ROOK_PROMOTION = 10;
+    public static final int QUEEN_PROMOTION = 11;
+
+    private static final char[] PROMOTION_PIECES = {'N', 'B', 'R', 'Q'};
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    // Getters
+    public static int getFrom(int move) { return move & 0x3F; }
+    public static int getTo(int move) { return (move >>> 6) & 0x3F; }
+    public static int getFlags(int move) { return (move >>> 12) & 0xF; }
+    public static boolean isCapture(int move) { return (getFlags(move) & CAPTURE) != 0; }
+    public static boolean isPromotion(int move) { return (getFlags(move) & PROMOTION) != 0; }
+    public static boolean isEnPassant(int move) { return getFlags(move) == EN_PASSANT; }
+    public static boolean isDoublePawnPush(int move) { return getFlags(move) == DOUBLE_PAWN_PUSH; }
+    public static boolean isCastle(int move) { return getFlags(move) == KING_CASTLE || getFlags(move) == QUEEN_CASTLE; }
+
+    /**
+     * Returns the piece a promotion promotes to, or {@code null} if the move is not a promotion.
+     */
+    public static PieceType getPromotionType(int move) {
+        if (!isPromotion(move)) { return null; }
+        return switch (getFlags(move) & 3) {
+            case 0 -> PieceType.KNIGHT;
+            case 1 -> PieceType.BISHOP;
+            case 2 -> PieceType.ROOK;
+            default -> PieceType.QUEEN;
+        };
+    }
+
+    public static char getPromotionPiece(int move) {
+        return isPromotion(move) ? PROMOTION_PIECES[getFlags(move) & 3] : '\0';
+    }
+
+    /**
+     * Converts a packed move back into a {@link Move} record.
+     *
+     * @param move The packed move.
+     * @return The equivalent {@link Move}.
+     */
+    public static Move toMove(int move) {
+        int from = getFrom(move);
+        int to = getTo(move);
+        return Move.of(Position.of(from), Position.of(to), getPromotionPiece(move));
+    }
+
+    /**
+     * Packs a {@link Move} record, reading the board to work out its flags.
+     * The board must be in the position the move is played from. A promotion piece on a move that
+     * is not a promotion is ignored, as it is by {@link Board#makeMove(Move)}.
+     *
+     * @param move The move to pack.
+     * @param board The board the move is played on.
+     * @return The packed move.
+     */
+    public static int fromMove(Move move, Board board) {
+        int from = move.initialPosition().index();
+        int to = move.finalPosition().index();
+        Piece pieceToMove = board.getPieceAt(from);
+        boolean isCapture = board.getPieceAt(to) != null;
+        if (pieceToMove == null) {
+            return encode(from, to, isCapture ? CAPTURE : QUIET);
+        }
+
+        int fileDelta = (to & 7) - (from & 7);
+        int rankDelta = (to >>> 3) - (from >>> 3);
+        switch (pieceToMove.getType()) {
+            case PAWN -> {
+                // Promotion
+                if ((to >>> 3 == 0 || to >>> 3 == 7) && move.promotionPiece() != '\0') {
+                    int flags = PROMOTION | "NBRQ".indexOf(move.promotionPiece());
+                    return encode(from, to, isCapture ? flags | CAPTURE : flags);
+                }
+                // En Passant
+                Position enPassantPosition = board.getEnPassantPosition();
+                if (fileDelta != 0 && !isCapture && enPassantPosition != null && enPassantPosition.index() == to) {
+                    return encode(from, to, EN_PASSANT);
+                }
+                // Double Push
+                if (fileDelta == 0 && Math.abs(rankDelta) == 2) {
+                    return encode(from, to, DOUBLE_PAWN_PUSH);
+                }
+            }
+            case KING -> {
+                // Castle
+                if (rankDelta == 0 && Math.abs(fileDelta) == 2) {
+                    return encode(from, to, fileDelta > 0 ? KING_CASTLE : QUEEN_CASTLE);
+                }
+            }
+            default -> { }
+        }
+        return encode(from, to, isCapture ? CAPTURE : QUIET);
+    }
+
+    /**
+     * Returns the move in long algebraic notation (e.g. "e2e4", "a7a8Q").
+     */
+    public static String toString(int move) {
+        int from = getFrom(move);
+        int to = getTo(move);
+        char promotionPiece = getPromotionPiece(move);
+        return "" + (char) ('a' + (from & 7)) + (char) ('1' + (from >>> 3))
+                + (char) ('a' + (to & 7)) + (char) ('1' + (to >>> 3))
+                + (promotionPiece == '\0' ? "" : promotionPiece);
+    }
+}
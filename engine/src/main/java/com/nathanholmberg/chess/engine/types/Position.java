@@ -4,12 +4,48 @@ import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
 import com.nathanholmberg.chess.engine.exceptions.IllegalPositionException;
 
 public record Position(int file, int rank) {
+    // One shared instance per square, indexed by square index
+    private static final Position[] POSITIONS = new Position[64];
+    static {
+        for (int square = 0; square < 64; square++) {
+            POSITIONS[square] = new Position(square & 7, square >>> 3);
+        }
+    }
+
     public Position {
         if (file < 0 || file > 7 || rank < 0 || rank > 7) {
             throw new IllegalPositionException("Illegal Position: (" + file + ", " + rank + "). Valid range for file and rank is 0-7.");
         }
     }
 
+    /**
+     * Returns the shared position for the given file and rank.
+     * Positions are immutable, so the engine uses these instead of constructing new ones.
+     *
+     * @param file The file (0-7).
+     * @param rank The rank (0-7).
+     * @return The cached position.
+     */
+    public static Position of(int file, int rank) {
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            throw new IllegalPositionException("Illegal Position: (" + file + ", " + rank + "). Valid range for file and rank is 0-7.");
+        }
+        return POSITIONS[rank * 8 + file];
+    }
+
+    /**
+     * Returns the shared position for the given square index (a1 = 0, h8 = 63).
+     *
+     * @param index The square index (0-63).
+     * @return The cached position.
+     */
+    public static Position of(int index) {
+        if (index < 0 || index > 63) {
+            throw new IllegalPositionException("Illegal Position: Square index " + index + ". Valid range is 0-63.");
+        }
+        return POSITIONS[index];
+    }
+
     public static Position fromAlgebraic(String notation) {
         if (notation.length() != 2) {
             throw new IllegalNotationException("Illegal Position Notation: '" + notation + "'. Notation must be exactly 2 characters.");
@@ -34,7 +70,17 @@ public record Position(int file, int rank) {
         }
 
         // Return
-        return new Position(file, rank);
+        return Position.of(file, rank);
+    }
+
+    /**
+     * Returns the square index of this position, counting from a1 (0) along each rank to h8 (63).
+     * This is the bit used for the position in the board's bitboards.
+     *
+     * @return The square index in the range 0-63.
+     */
+    public int index() {
+        return rank * 8 + file;
     }
 
     public String toAlgebraic() {
@@ -58,7 +104,7 @@ public record Position(int file, int rank) {
         if (newFile < 0 || newFile > 7 || newRank < 0 || newRank > 7) {
             throw new IllegalPositionException("Illegal Position: Moved Position is Out of Bounds.");
         }
-        return new Position(newFile, newRank);
+        return Position.of(newFile, newRank);
     }
 
     /**
@@ -70,10 +116,10 @@ public record Position(int file, int rank) {
      * - Position "h8" (file = 7, rank = 7) is inverted to "a1" (file = 0, rank = 0).
      * - Position "c3" (file = 2, rank = 2) is inverted to "f6" (file = 5, rank = 5).
      *
-     * @return A new `Position` object representing the flipped coordinates.
+     * @return The `Position` object representing the flipped coordinates.
      */
     public Position inverse() {
-        return new Position(7 - file, 7 - rank);
+        return Position.of(7 - file, 7 - rank);
     }
 
     // Equality & Hashing
@@ -83,6 +129,10 @@ public record Position(int file, int rank) {
         if (!(obj instanceof Position other)) return false;
         return this.file == other.file && this.rank == other.rank;
     }
+    @Override
+    public int hashCode() {
+        return index();
+    }
     public boolean equals(String notation) {
         Position pos = Position.fromAlgebraic(notation);
         return this.equals(pos);
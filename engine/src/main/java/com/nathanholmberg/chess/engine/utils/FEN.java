@@ -1,6 +1,7 @@
 package com.nathanholmberg.chess.engine.utils;
 
 import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
 import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
 import com.nathanholmberg.chess.engine.game.Board;
 import com.nathanholmberg.chess.engine.game.ChessGame;
@@ -8,181 +9,291 @@ import com.nathanholmberg.chess.engine.pieces.Piece;
 import com.nathanholmberg.chess.engine.types.CastlingRights;
 import com.nathanholmberg.chess.engine.types.Position;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Reads and writes Forsyth-Edwards Notation (FEN).
+ *
+ * <p>{@link #parse(CharSequence, Board)} reads the fields straight from the characters, without splitting
+ * the text, and sets up an existing board in place, so loading many positions into one board allocates
+ * almost nothing. {@link #appendFEN} writes into a caller's {@link StringBuilder}.</p>
+ *
+ * <p>{@link #validateAll(Stream)} checks many positions in parallel, such as the lines of an EPD file,
+ * with one board per thread.</p>
+ */
 public class FEN {
-    private static Board getBoard(String boardFEN) {
-        String[] ranks = boardFEN.split("/");
-        Board board = Board.getEmptyBoard();
-
-        // Check for 8 ranks
-        if (ranks.length != 8) {
-            throw new IllegalNotationException("Illegal FEN: Board must be 8 ranks");
-        }
-
-        // Check for Kings
-        if (!boardFEN.contains("K") || !boardFEN.contains("k")) {
-            throw new IllegalNotationException("Illegal FEN: Both kings (K and k) MUST be on the board.");
-        }
+    private static final ThreadLocal<Board> VALIDATION_BOARDS = ThreadLocal.withInitial(Board::getEmptyBoard);
 
-        // Loop Through Board
-        for (int rank = 0; rank < 8; rank++) {
-            int file = 0;
-            for (char c : ranks[7 - rank].toCharArray()) {
-                // Skip if number
-                if (Character.isDigit(c)) {
-                    file += (c - '0');
-                    continue;
-                }
+    /**
+     * The fields of a FEN that are not part of the board.
+     *
+     * @param turn The side to move.
+     * @param halfMoveClock The half move clock.
+     * @param fullMoveNumber The full move number.
+     */
+    public record Setup(Color turn, int halfMoveClock, int fullMoveNumber) { }
 
-                if (file >= 8) {
-                    throw new IllegalNotationException("Illegal FEN: Board must be 8 ranks wide.");
-                }
-
-                // Set Piece On Board
-                Position pos = new Position(file, rank);
-                try {
-                    board.setPieceAt(pos, PieceUtils.charToPiece(c));
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalNotationException("Illegal FEN: Invalid piece character '" + c + "' at position " + pos.toAlgebraic() + ".");
-                }
+    public static ChessGame getGame(String fen) {
+        Board board = Board.getEmptyBoard();
+        Setup setup = parse(fen, board);
+        return new ChessGame(board, setup.turn(), setup.halfMoveClock(), setup.fullMoveNumber());
+    }
 
-                // No Pawns on edge
-                if ((rank == 0 || rank == 7) && (c == 'P' || c == 'p')) {
-                    throw new IllegalNotationException("Illegal FEN: Pawns cannot be on the 1st or 8th ranks.");
-                }
+    /**
+     * Parses a FEN into an existing board, replacing its pieces, castling rights and en passant square.
+     * Castling rights whose king or rook is not on its starting square are dropped.
+     *
+     * @param fen The FEN, with all six fields separated by single spaces.
+     * @param board The board to set up. When the FEN is illegal it is left partly set up.
+     * @return The side to move and the clocks.
+     * @throws IllegalNotationException If the FEN is malformed or the position is illegal.
+     */
+    public static Setup parse(CharSequence fen, Board board) {
+        return parse(fen, board, false);
+    }
 
-                // Move to Next File
-                file++;
-            }
-            if (file != 8) {
-                throw new IllegalNotationException("Illegal FEN: Board must be 8 ranks wide.");
-            }
+    /**
+     * Checks a FEN, or an EPD line, whose clocks are optional and may be followed by operations.
+     * Besides what {@link #parse} checks, castling rights must match the kings and rooks.
+     *
+     * @param fen The FEN or EPD line.
+     * @return {@code null} when the position is legal, otherwise why it is not.
+     */
+    public static String validate(CharSequence fen) {
+        Board board = VALIDATION_BOARDS.get();
+        try {
+            parse(fen, board, true);
+        } catch (IllegalNotationException e) {
+            return e.getMessage();
         }
-
-        // Return Board
-        return board;
+        return null;
     }
 
-    public static ChessGame getGame(String fen) {
-        Board board;
-        Color currentPlayer;
-        int halfMoveClock;
-        int fullMoveNumber;
+    /**
+     * Checks many FENs or EPD lines in parallel.
+     *
+     * @param fens The positions to check.
+     * @return One message per illegal position, naming it, in the order the positions came in.
+     */
+    public static List<String> validateAll(Stream<String> fens) {
+        return fens.parallel()
+                .map(fen -> {
+                    String error = validate(fen);
+                    return error == null ? null : "'" + fen + "': " + error;
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
 
+    private static Setup parse(CharSequence fen, Board board, boolean epd) {
         // Early Throw
-        if (fen == null || fen.isBlank()) {
+        if (fen == null || isBlank(fen)) {
             throw new IllegalNotationException("Illegal FEN: FEN string cannot be null or blank.");
         }
+        int length = fen.length();
 
-        // Break into parts
-        String[] fenParts = fen.split(" ");
-
-        // Early Throw
-        if (fenParts.length != 6) {
-            throw new IllegalNotationException("Illegal FEN: FEN string must contain exactly 6 parts.");
-        }
-
-        /// Construct Board
-        String boardFEN = fenParts[0];
-        board = getBoard(boardFEN);
-
-        /// Construct Current Player
-        String currentPlayerFEN = fenParts[1];
+        /// Board
+        int boardEnd = fieldEnd(fen, 0);
+        parseBoard(fen, boardEnd, board);
 
-        // Early Throw
-        if (currentPlayerFEN.isBlank() || currentPlayerFEN.length() > 1) {
+        /// Current Player
+        int start = boardEnd + 1;
+        int end = fieldEnd(fen, start);
+        if (end - start != 1) {
             throw new IllegalNotationException("Illegal FEN: Current Player must be either 'w' or 'b'.");
         }
-        currentPlayerFEN = currentPlayerFEN.toLowerCase();
-        if (!currentPlayerFEN.equals("w") && !currentPlayerFEN.equals("b")) {
+        char player = Character.toLowerCase(fen.charAt(start));
+        if (player != 'w' && player != 'b') {
             throw new IllegalNotationException("Illegal FEN: Current Player must either be 'w' or 'b'.");
         }
-        currentPlayer = currentPlayerFEN.equals("w") ? Color.WHITE : Color.BLACK;
+        Color turn = player == 'w' ? Color.WHITE : Color.BLACK;
 
         // Cannot be left in check
-        if (board.isKingInCheck(currentPlayer.inverse())) {
+        if (board.isKingInCheck(turn.inverse())) {
             throw new IllegalNotationException("Illegal FEN: Other Player cannot be left in check.");
         }
 
-        /// Construct Castling Rights
-        String castlingRightsFEN = fenParts[2];
-        CastlingRights castlingRights = new CastlingRights();
-
-        // Set Castling Rights
-        castlingRights.setWhiteQueenSide(castlingRightsFEN.contains("Q"));
-        castlingRights.setWhiteKingSide(castlingRightsFEN.contains("K"));
-        castlingRights.setBlackQueenSide(castlingRightsFEN.contains("q"));
-        castlingRights.setBlackKingSide(castlingRightsFEN.contains("k"));
+        /// Castling Rights
+        start = end + 1;
+        end = fieldEnd(fen, start);
+        CastlingRights castlingRights = board.getCastlingRights();
+        int claimed = 0;
+        for (int i = start; i < end; i++) {
+            switch (fen.charAt(i)) {
+                case 'K' -> claimed |= CastlingRights.WHITE_KING_SIDE;
+                case 'Q' -> claimed |= CastlingRights.WHITE_QUEEN_SIDE;
+                case 'k' -> claimed |= CastlingRights.BLACK_KING_SIDE;
+                case 'q' -> claimed |= CastlingRights.BLACK_QUEEN_SIDE;
+                default -> { }
+            }
+        }
+        castlingRights.setBits(claimed);
 
         // Verify Castling Rights
         castlingRights.correctRights(board);
-
-        // Add Castling Rights to Board
-        board.setCastlingRights(castlingRights);
-
-        /// Construct En Passant Position
-        String enPassantPositionFEN = fenParts[3];
-
-        // Early Throw
-        if (enPassantPositionFEN.isBlank() || enPassantPositionFEN.length() > 2) {
-            throw new IllegalNotationException("Illegal FEN: Current Player must be either 'w' or 'b'.");
+        if (epd && castlingRights.getBits() != claimed) {
+            throw new IllegalNotationException("Illegal FEN: Castling rights do not match the kings and rooks.");
         }
 
-        // get En Passant Position
-        Position enPassantPosition;
-        if (enPassantPositionFEN.equals("-")) {
-            enPassantPosition = null;
+        /// En Passant Position
+        start = end + 1;
+        end = fieldEnd(fen, start);
+        if (end - start == 1 && fen.charAt(start) == '-') {
+            board.setEnPassantPosition(null);
         } else {
-            try {
-                enPassantPosition = Position.fromAlgebraic(enPassantPositionFEN);
-            } catch (IllegalArgumentException e) {
-                throw new IllegalNotationException("Illegal FEN: Invalid en passant target position '" + enPassantPositionFEN + "'.");
+            if (end - start != 2 || fen.charAt(start) < 'a' || fen.charAt(start) > 'h' || fen.charAt(start + 1) < '1' || fen.charAt(start + 1) > '8') {
+                throw new IllegalNotationException("Illegal FEN: Invalid en passant target position '" + fen.subSequence(start, end) + "'.");
             }
+            board.setEnPassantPosition(Position.of(fen.charAt(start) - 'a', fen.charAt(start + 1) - '1'));
         }
 
-        // Add enPassantPosition to Board
-        board.setEnPassantPosition(enPassantPosition);
-
-        /// Construct Half Move Clock
-        String halfMoveClockFEN = fenParts[4];
-        try {
-            halfMoveClock = Integer.parseInt(halfMoveClockFEN);
-        } catch (NumberFormatException e) {
-            throw new IllegalNotationException("Illegal FEN: Invalid half move clock '" + halfMoveClockFEN + "'.");
+        // EPD lines may stop here, or carry operations instead of clocks
+        if (epd && (end >= length || !isNumber(fen, end + 1, fieldEnd(fen, end + 1)))) {
+            return new Setup(turn, 0, 1);
         }
 
+        /// Half Move Clock
+        start = end + 1;
+        end = fieldEnd(fen, start);
+        int halfMoveClock = parseNumber(fen, start, end, "half move clock");
+
         // Constrain Half Move Clock
         if (halfMoveClock < 0 || halfMoveClock > 100) {
             throw new IllegalNotationException("Illegal FEN: Half move clock must be between 0 and 100.");
         }
 
-        /// Construct Full Move Number
-        String fullMoveNumberFEN = fenParts[5];
-        try {
-            fullMoveNumber = Integer.parseInt(fullMoveNumberFEN);
-        } catch (NumberFormatException e) {
-            throw new IllegalNotationException("Illegal FEN: Invalid full move number '" + fullMoveNumberFEN + "'.");
-        }
+        /// Full Move Number
+        start = end + 1;
+        end = fieldEnd(fen, start);
+        int fullMoveNumber = parseNumber(fen, start, end, "full move number");
 
         // Constrain Full Move Number
         if (fullMoveNumber <= 0) {
             throw new IllegalNotationException("Illegal FEN: Full move number must be greater than 0.");
         }
 
-        // Construct and return the FEN object.
-        return new ChessGame(board, currentPlayer, halfMoveClock, fullMoveNumber);
+        // Nothing may follow a FEN
+        if (!epd && end != length) {
+            throw new IllegalNotationException("Illegal FEN: FEN string must contain exactly 6 parts.");
+        }
+        return new Setup(turn, halfMoveClock, fullMoveNumber);
     }
 
-    public static String getFENBoardAndTurn(ChessGame chessGame) {
-        StringBuilder fen = new StringBuilder();
+    private static void parseBoard(CharSequence fen, int end, Board board) {
+        board.clear();
+
+        // Loop Through Board, from the 8th rank down
+        int rank = 7;
+        int file = 0;
+        for (int i = 0; i < end; i++) {
+            char c = fen.charAt(i);
+
+            // Next Rank
+            if (c == '/') {
+                if (file != 8) {
+                    throw new IllegalNotationException("Illegal FEN: Board must be 8 ranks wide.");
+                }
+                if (--rank < 0) {
+                    throw new IllegalNotationException("Illegal FEN: Board must be 8 ranks");
+                }
+                file = 0;
+                continue;
+            }
+
+            // Skip if number
+            if (c >= '1' && c <= '8') {
+                file += c - '0';
+                if (file > 8) {
+                    throw new IllegalNotationException("Illegal FEN: Board must be 8 ranks wide.");
+                }
+                continue;
+            }
+
+            if (file >= 8) {
+                throw new IllegalNotationException("Illegal FEN: Board must be 8 ranks wide.");
+            }
+
+            // Set Piece On Board
+            Piece piece;
+            try {
+                piece = PieceUtils.charToPiece(c);
+            } catch (IllegalNotationException e) {
+                throw new IllegalNotationException("Illegal FEN: Invalid piece character '" + c + "' at position " + Position.of(file, rank).toAlgebraic() + ".");
+            }
+            if (piece.getType() == PieceType.KING && board.getPieceBitboard(piece.getColor(), PieceType.KING) != 0) {
+                throw new IllegalNotationException("Illegal FEN: Each side must have exactly one king.");
+            }
+            board.setPieceAt(rank * 8 + file, piece);
+
+            // No Pawns on edge
+            if ((rank == 0 || rank == 7) && piece.getType() == PieceType.PAWN) {
+                throw new IllegalNotationException("Illegal FEN: Pawns cannot be on the 1st or 8th ranks.");
+            }
+
+            // Move to Next File
+            file++;
+        }
+        if (rank != 0) {
+            throw new IllegalNotationException("Illegal FEN: Board must be 8 ranks");
+        }
+        if (file != 8) {
+            throw new IllegalNotationException("Illegal FEN: Board must be 8 ranks wide.");
+        }
+
+        // Check for Kings
+        if (board.getPieceBitboard(Color.WHITE, PieceType.KING) == 0 || board.getPieceBitboard(Color.BLACK, PieceType.KING) == 0) {
+            throw new IllegalNotationException("Illegal FEN: Both kings (K and k) MUST be on the board.");
+        }
+    }
+
+    // Returns the index of the space after the field starting at start, or the length
+    private static int fieldEnd(CharSequence fen, int start) {
+        if (start >= fen.length()) {
+            throw new IllegalNotationException("Illegal FEN: FEN string must contain exactly 6 parts.");
+        }
+        int end = start;
+        while (end < fen.length() && fen.charAt(end) != ' ') { end++; }
+        if (end == start) {
+            throw new IllegalNotationException("Illegal FEN: FEN string must contain exactly 6 parts.");
+        }
+        return end;
+    }
+
+    private static boolean isBlank(CharSequence fen) {
+        for (int i = 0; i < fen.length(); i++) {
+            if (!Character.isWhitespace(fen.charAt(i))) { return false; }
+        }
+        return true;
+    }
+
+    private static boolean isNumber(CharSequence fen, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(fen.charAt(i))) { return false; }
+        }
+        return true;
+    }
 
+    private static int parseNumber(CharSequence fen, int start, int end, String name) {
+        try {
+            return Integer.parseInt(fen, start, end, 10);
+        } catch (NumberFormatException e) {
+            throw new IllegalNotationException("Illegal FEN: Invalid " + name + " '" + fen.subSequence(start, end) + "'.");
+        }
+    }
+
+    /**
+     * Appends the board and side to move fields of a FEN.
+     */
+    public static void appendFENBoardAndTurn(StringBuilder fen, Board board, Color turn) {
         // Construct Board
         for (int rank = 7; rank >= 0; rank--) {
             int emptyCount = 0;
 
             // Loop through files
             for (int file = 0; file < 8; file++) {
-                Position currentPosition = new Position(file, rank);
-                Piece currentPiece = chessGame.board.getPieceAt(currentPosition);
+                Piece currentPiece = board.getPieceAt(rank * 8 + file);
 
                 if (currentPiece == null) {
                     // Count Empty Spaces
@@ -195,7 +306,7 @@ public class FEN {
                     }
 
                     // Append Piece Representation
-                    fen.append(currentPiece);
+                    fen.append(PieceUtils.pieceToChar(currentPiece));
                 }
             }
 
@@ -211,44 +322,57 @@ public class FEN {
         }
 
         // Construct Current Player
-        fen.append(" ").append(chessGame.getTurn() == Color.WHITE ? "w" : "b");
-        return fen.toString();
+        fen.append(' ').append(turn == Color.WHITE ? 'w' : 'b');
     }
 
-    public static String getFEN(ChessGame chessGame) {
-        StringBuilder fen = new StringBuilder();
-
+    /**
+     * Appends a full FEN of the position.
+     */
+    public static void appendFEN(StringBuilder fen, Board board, Color turn, int halfMoveClock, int fullMoveNumber) {
         // Construct Board
-        fen.append(getFENBoardAndTurn(chessGame));
+        appendFENBoardAndTurn(fen, board, turn);
 
         // Construct Castling Rights
-        fen.append(" ");
+        fen.append(' ');
 
-        CastlingRights castlingRights = chessGame.board.getCastlingRights();
-        if (castlingRights.isWhiteKingSide()) { fen.append("K"); }
-        if (castlingRights.isWhiteQueenSide()) { fen.append("Q"); }
-        if (castlingRights.isBlackKingSide()) { fen.append("k"); }
-        if (castlingRights.isBlackQueenSide()) { fen.append("q"); }
+        CastlingRights castlingRights = board.getCastlingRights();
+        if (castlingRights.isWhiteKingSide()) { fen.append('K'); }
+        if (castlingRights.isWhiteQueenSide()) { fen.append('Q'); }
+        if (castlingRights.isBlackKingSide()) { fen.append('k'); }
+        if (castlingRights.isBlackQueenSide()) { fen.append('q'); }
 
         // If no castling rights add "-"
-        if (castlingRights.isNone()) { fen.append("-"); }
+        if (castlingRights.isNone()) { fen.append('-'); }
 
         // Construct En Passant Position
-        Position enPassantPosition = chessGame.board.getEnPassantPosition();
-        fen.append(" ");
+        Position enPassantPosition = board.getEnPassantPosition();
+        fen.append(' ');
         if (enPassantPosition == null) {
-            fen.append("-");
+            fen.append('-');
         } else {
-            fen.append(enPassantPosition.toAlgebraic());
+            fen.append((char) ('a' + enPassantPosition.file())).append((char) ('1' + enPassantPosition.rank()));
         }
 
         // Construct Half Move Clock
-        fen.append(" ").append(chessGame.getHalfMoveClock());
+        fen.append(' ').append(halfMoveClock);
 
         // Construct Full Move Number
-        fen.append(" ").append(chessGame.getFullMoveNumber());
+        fen.append(' ').append(fullMoveNumber);
+    }
 
-        // Return
+    public static void appendFEN(StringBuilder fen, ChessGame chessGame) {
+        appendFEN(fen, chessGame.board, chessGame.getTurn(), chessGame.getHalfMoveClock(), chessGame.getFullMoveNumber());
+    }
+
+    public static String getFENBoardAndTurn(ChessGame chessGame) {
+        StringBuilder fen = new StringBuilder(72);
+        appendFENBoardAndTurn(fen, chessGame.board, chessGame.getTurn());
+        return fen.toString();
+    }
+
+    public static String getFEN(ChessGame chessGame) {
+        StringBuilder fen = new StringBuilder(90);
+        appendFEN(fen, chessGame);
         return fen.toString();
     }
 }
@@ -0,0 +1,218 @@
+package com.nathanholmberg.chess.engine.utils;
+
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.GameResult;
+import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
+import com.nathanholmberg.chess.engine.game.Board;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.game.MoveGenerator;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.MoveList;
+import com.nathanholmberg.chess.engine.types.PackedMove;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * A compact binary encoding of a game, for storage and transfer.
+ *
+ * <p>Each ply is stored as one byte: the index of the move among the position's legal moves, sorted by
+ * their packed value so the order does not depend on how the generator lists them. No position has more
+ * than 218 legal moves, so the index always fits. Decoding replays the moves with the move generator, and
+ * never parses text.</p>
+ *
+ * <p>The layout is:</p>
+ * <ul>
+ *   <li>A version byte.</li>
+ *   <li>A flags byte: whether the game starts from a FEN rather than the standard position, and whether clocks follow.</li>
+ *   <li>The result, as the {@link GameResult} ordinal.</li>
+ *   <li>White's and black's remaining time in milliseconds, as variable length integers, when present.</li>
+ *   <li>The starting FEN, as a variable length byte count and its ASCII bytes, when present.</li>
+ *   <li>The number of plies, as a variable length integer, then one byte per ply. The byte is the move's
+ *       index among the legal moves in ascending packed value ({@link MoveList#sort()}): by flags, then
+ *       to square, then from square, with squares numbered a1 = 0 to h8 = 63.</li>
+ * </ul>
+ */
+public class GameCodec {
+    private static final int VERSION = 1;
+    private static final int FLAG_START_FEN = 1;
+    private static final int FLAG_CLOCKS = 2;
+    private static final String STANDARD_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /**
+     * A decoded game with its clocks.
+     *
+     * @param chessGame The game, with every move played.
+     * @param hasClocks Whether the encoding held clocks.
+     * @param whiteTime White's remaining time in milliseconds, or 0 without clocks.
+     * @param blackTime Black's remaining time in milliseconds, or 0 without clocks.
+     */
+    public record Snapshot(ChessGame chessGame, boolean hasClocks, long whiteTime, long blackTime) { }
+
+    public static byte[] encode(ChessGame chessGame) {
+        return encode(chessGame, false, 0, 0);
+    }
+
+    public static byte[] encode(ChessGame chessGame, long whiteTime, long blackTime) {
+        return encode(chessGame, true, whiteTime, blackTime);
+    }
+
+    /**
+     * Decodes a game, ignoring any clocks.
+     *
+     * @throws IllegalNotationException If the bytes are not a valid encoding.
+     */
+    public static ChessGame decode(byte[] bytes) {
+        return decodeSnapshot(bytes).chessGame();
+    }
+
+    /**
+     * Decodes a game and its clocks.
+     *
+     * @param bytes The encoding, from {@link #encode}.
+     * @return The game and its clocks.
+     * @throws IllegalNotationException If the bytes are not a valid encoding.
+     */
+    public static Snapshot decodeSnapshot(byte[] bytes) {
+        Input input = new Input(bytes);
+        int version = input.readByte();
+        if (version != VERSION) {
+            throw new IllegalNotationException("Illegal Game Encoding: unknown version " + version + ".");
+        }
+        int flags = input.readByte();
+        int resultOrdinal = input.readByte();
+        if (resultOrdinal >= GameResult.values().length) {
+            throw new IllegalNotationException("Illegal Game Encoding: unknown result " + resultOrdinal + ".");
+        }
+        GameResult result = GameResult.values()[resultOrdinal];
+
+        // Clocks
+        boolean hasClocks = (flags & FLAG_CLOCKS) != 0;
+        long whiteTime = hasClocks ? input.readVarLong() : 0;
+        long blackTime = hasClocks ? input.readVarLong() : 0;
+
+        // Start
+        ChessGame chessGame;
+        if ((flags & FLAG_START_FEN) != 0) {
+            int length = (int) input.readVarLong();
+            chessGame = FEN.getGame(new String(input.readBytes(length), StandardCharsets.US_ASCII));
+        } else {
+            chessGame = new ChessGame();
+        }
+
+        // Plies
+        long plies = input.readVarLong();
+        MoveList legalMoves = new MoveList();
+        for (long ply = 0; ply < plies; ply++) {
+            int index = input.readByte();
+            chessGame.generateLegalMoves(legalMoves);
+            if (index >= legalMoves.size()) {
+                throw new IllegalNotationException("Illegal Game Encoding: move index " + index + " at ply " + (ply + 1)
+                        + " but only " + legalMoves.size() + " legal moves.");
+            }
+            legalMoves.sort();
+            chessGame.move(PackedMove.toMove(legalMoves.get(index)));
+        }
+
+        // Results the moves do not show, such as resignations
+        if (chessGame.getResult() != result && result != GameResult.ON_GOING) {
+            chessGame.setResult(result);
+        }
+        return new Snapshot(chessGame, hasClocks, whiteTime, blackTime);
+    }
+
+    private static byte[] encode(ChessGame chessGame, boolean hasClocks, long whiteTime, long blackTime) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(64 + chessGame.getMoveHistory().getSize());
+        ChessGame initialGame = chessGame.getInitialGame();
+        String fen = FEN.getFEN(initialGame);
+        boolean hasStartFen = !fen.equals(STANDARD_FEN);
+
+        // Header
+        output.write(VERSION);
+        output.write((hasStartFen ? FLAG_START_FEN : 0) | (hasClocks ? FLAG_CLOCKS : 0));
+        output.write(chessGame.getResult().ordinal());
+        if (hasClocks) {
+            writeVarLong(output, whiteTime);
+            writeVarLong(output, blackTime);
+        }
+        if (hasStartFen) {
+            byte[] fenBytes = fen.getBytes(StandardCharsets.US_ASCII);
+            writeVarLong(output, fenBytes.length);
+            output.writeBytes(fenBytes);
+        }
+
+        // Plies, played on the starting board
+        List<Move> moves = chessGame.getMoveHistory().getMoves();
+        writeVarLong(output, moves.size());
+        Board board = initialGame.board;
+        Color turn = initialGame.getTurn();
+        MoveList legalMoves = new MoveList();
+        for (int ply = 0; ply < moves.size(); ply++) {
+            Move move = moves.get(ply);
+            legalMoves.clear();
+            MoveGenerator.generateLegalMoves(board, turn, legalMoves);
+            legalMoves.sort();
+            int packedMove = PackedMove.fromMove(move, board);
+            int index = legalMoves.indexOf(packedMove);
+            if (index < 0) {
+                throw new IllegalStateException("Cannot encode move " + move + " at ply " + (ply + 1)
+                        + ": it is not a legal move in that position.");
+            }
+            output.write(index);
+            board.makeMove(packedMove);
+            turn = turn.inverse();
+        }
+        return output.toByteArray();
+    }
+
+    // Seven bits per byte, low bits first, with the high bit set on every byte but the last
+    private static void writeVarLong(ByteArrayOutputStream output, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Cannot encode a negative value: " + value);
+        }
+        while (value >= 0x80) {
+            output.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    private static class Input {
+        private final byte[] bytes;
+        private int position;
+
+        private Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private int readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalNotationException("Illegal Game Encoding: unexpected end at byte " + position + ".");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        private byte[] readBytes(int length) {
+            if (length < 0 || position + length > bytes.length) {
+                throw new IllegalNotationException("Illegal Game Encoding: unexpected end at byte " + position + ".");
+            }
+            byte[] read = new byte[length];
+            System.arraycopy(bytes, position, read, 0, length);
+            position += length;
+            return read;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalNotationException("Illegal Game Encoding: variable length integer too long at byte " + position + ".");
+        }
+    }
+}
@@ -5,10 +5,13 @@ import com.nathanholmberg.chess.engine.exceptions.IllegalMoveException;
 import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
 import com.nathanholmberg.chess.engine.game.Board;
 import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.game.MoveGenerator;
 import com.nathanholmberg.chess.engine.pieces.King;
 import com.nathanholmberg.chess.engine.pieces.Pawn;
 import com.nathanholmberg.chess.engine.pieces.Piece;
 import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.MoveList;
+import com.nathanholmberg.chess.engine.types.PackedMove;
 import com.nathanholmberg.chess.engine.types.Position;
 
 public class MoveUtils {
@@ -51,267 +54,80 @@ public class MoveUtils {
     }
 
     public static boolean causesCheck(Move move, ChessGame chessGame) {
-        // Create a copy of the board
-        Board boardCopy = chessGame.board.getDeepCopy();
+        Board board = chessGame.board;
 
         // Apply Move
-        boardCopy.executeMove(move);
+        long undo = board.makeMove(move);
 
-        // Check if the king is in check after the move
-        Color color = chessGame.getTurn().inverse();
-        King king = boardCopy.getKing(color);
-        Position kingPosition = boardCopy.getKingPosition(color);
-        return king.isChecked(kingPosition, boardCopy);
+        // Check if the opponent's king is attacked after the move, then take the move back
+        try {
+            Position kingPosition = board.getKingPosition(chessGame.getTurn().inverse());
+            return board.isSquareAttacked(kingPosition, chessGame.getTurn());
+        } finally {
+            board.unmakeMove(undo);
+        }
     }
 
     public static boolean causesCheckmate(Move move, ChessGame chessGame) {
-        ChessGame chessGameCopy = chessGame.getDeepCopy();
+        Board board = chessGame.board;
 
         // Early Return
-        if (!chessGameCopy.isMoveLegal(move)) {
+        if (!chessGame.isMoveLegal(move)) {
             return false;
         }
 
-        // Move
-        chessGameCopy.move(move);
-        return chessGameCopy.isCheckmate();
-    }
-
-    private static String getAmbiguity(Move move, ChessGame chessGame) {
-        Position initialPosition = move.initialPosition();
-        Position finalPosition = move.finalPosition();
-        Piece pieceToMove = chessGame.board.getPieceAt(initialPosition);
-        boolean isCapture = isCapture(move, chessGame);
-
-        // Pawn
-        if (pieceToMove instanceof Pawn) {
-            if (isCapture) {
-                return "" + initialPosition.fileToChar();
-            }
-            return "";
-        }
-
-        // If two identical pieces can move to the same square,
-        // the file (letter) or rank (number) of the starting square is included to clarify.
-        boolean addFile = false;
-        boolean addRank = false;
-        for (Position currentPos : chessGame.board.getPiecePositionsByColor(pieceToMove.getColor())) {
-            Piece currentPiece = chessGame.board.getPieceAt(currentPos);
-
-            // Skip Same Piece
-            if (pieceToMove.equals(currentPiece)) { continue; }
-            // Skip Wrong Instance
-            if (!(pieceToMove.getClass().equals(currentPiece.getClass()))) { continue; }
-            // Skip Illegal Moves
-            if (!chessGame.isMoveLegal(new Move(currentPos, finalPosition, '\0'))) { continue; }
-
-            // Do the thing
-            if (currentPos.file() == initialPosition.file()) {
-                addRank = true;
-                continue;
-            }
-            addFile = true;
-        }
-        if (addFile && addRank) {
-            return initialPosition.toAlgebraic();
-        }
-        if (addFile) {
-            return "" + initialPosition.fileToChar();
-        }
-        if (addRank) {
-            return "" + initialPosition.rankToChar();
-        }
-        return "";
-    }
-
-    private static Position resolveAmbiguity(String ambiguity, char pieceChar, Position finalPosition, ChessGame chessGame) {
-        if (ambiguity.length() > 2) {
-            throw new IllegalNotationException("Invalid Algebraic Notation: Ambiguity is too long: '" + ambiguity + "'.");
-        }
-
-        // Find Initial Position
-        for (Position currentPos : chessGame.board.getPiecePositionsByColor(chessGame.getTurn())) {
-            Piece currentPiece = chessGame.board.getPieceAt(currentPos);
-
-            // Skip Wrong Instance
-            if (Character.toUpperCase(currentPiece.toChar()) != Character.toUpperCase(pieceChar)) { continue; }
-            // Skip Illegal Moves
-            if (!chessGame.isMoveLegal(new Move(currentPos, finalPosition, 'Q'))) { continue; }
-
-            // No Ambiguity
-            if (ambiguity.isEmpty()) {
-                return currentPos;
-            }
-
-            // Some Ambiguity
-            if (ambiguity.length() == 1) {
-                // File Ambiguity
-                if (ambiguity.charAt(0) == currentPos.rankToChar()) {
-                    return currentPos;
-                }
-
-                // Rank Ambiguity
-                if (ambiguity.charAt(0) == currentPos.fileToChar()) {
-                    return currentPos;
-                }
-            }
+        // Apply Move
+        Color opponent = chessGame.getTurn().inverse();
+        long undo = board.makeMove(move);
 
-            // All Ambiguity
-            if (ambiguity.length() == 2) {
-                // Check if currentPos is it
-                if (currentPos.toAlgebraic().equals(ambiguity)) {
-                    return currentPos;
-                }
+        // Checkmate is a check without a legal reply, then take the move back
+        try {
+            if (!board.isKingInCheck(opponent)) {
+                return false;
             }
+            MoveList replies = new MoveList();
+            MoveGenerator.generateLegalMoves(board, opponent, replies);
+            return replies.isEmpty();
+        } finally {
+            board.unmakeMove(undo);
         }
-        throw new IllegalNotationException("Ambiguous algebraic notation: cannot resolve initial position from ambiguity: '" + ambiguity + "'.");
-    }
-
-    private static Move createCastlingMove(ChessGame chessGame, boolean isKingSide) {
-        Position initialPosition = chessGame.board.getKingPosition(chessGame.getTurn());
-        Position finalPosition = initialPosition.move(isKingSide ? 2 : -2, 0);
-        return new Move(initialPosition, finalPosition, '\0');
     }
 
+    /**
+     * Parses SAN into a legal move of the game's current position, see {@link SAN#parse(CharSequence, Board, MoveList)}.
+     *
+     * @param notation The move in SAN.
+     * @param chessGame The game to play the move in.
+     * @return The move.
+     */
     public static Move fromAlgebraic(String notation, ChessGame chessGame) {
-        Position initialPosition;
-        Position finalPosition;
-        char promotionPiece = '\0';
-
-        // Original Notation
-        String originalNotation = notation;
+        MoveList legalMoves = new MoveList();
+        chessGame.generateLegalMoves(legalMoves);
+        Move move = PackedMove.toMove(SAN.parse(notation, chessGame.board, legalMoves));
 
-        // Ensure notation is not null or empty
-        if (notation == null || notation.isEmpty()) {
-            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'");
-        }
-
-        // Handle Extras
-        boolean isCapture = notation.contains("x");
-        boolean causesCheck = notation.contains("+");
-        boolean causesCheckmate = notation.contains("#");
-        boolean isPromotion = notation.contains("=");
-        notation = notation.replaceAll("[+#x]", "");
-
-        // Handle castling
-        if (notation.equals("O-O")) {
-            return createCastlingMove(chessGame, true);
-        } else if (notation.equals("O-O-O")) {
-            return createCastlingMove(chessGame, false);
-        }
-
-        // Handle Promotion
-        if (isPromotion) {
-            int promotionIndex = notation.indexOf('=');
-
-            // Update Promotion Piece
-            promotionPiece = notation.charAt(promotionIndex + 1);
-
-            // Remove Promotion Part
-            notation = notation.substring(0, promotionIndex);
-        }
-
-        // Get Final Position
-        String finalPositionString = notation.substring(notation.length() - 2);
-        finalPosition = Position.fromAlgebraic(finalPositionString);
-
-        // Remove Final Position from notation
-        notation = notation.substring(0, notation.length() - 2);
-
-        // Get Piece To Move Char
-        char pieceToMoveChar = (notation.isEmpty() || !Character.isUpperCase(notation.charAt(0)))
-                ? 'P'
-                : Character.toUpperCase(notation.charAt(0));
-
-        // Remove piece character from notation if it's not a pawn
-        if (pieceToMoveChar != 'P') {
-            notation = notation.substring(1);
-        }
-
-        // Resolve Ambiguity
-        try {
-            initialPosition = resolveAmbiguity(notation, pieceToMoveChar, finalPosition, chessGame);
-        } catch (IllegalNotationException e) {
-            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'. ");
-        }
-
-        // Validate the move
-        Move move = new Move(initialPosition, finalPosition, promotionPiece);
+        // The position's moves are only playable while the game is on and current
         if (!chessGame.isMoveLegal(move)) {
-            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'. Move is not legal.");
+            throw new IllegalNotationException("Illegal Algebraic Notation: '" + notation + "'. Move is not legal.");
         }
-
-        // Check for extras
-        if (isCapture ^ isCapture(move, chessGame)) {
-            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'. Capture symbol does not match move.");
-        }
-        if ((causesCheck ^ causesCheck(move, chessGame)) && !causesCheckmate) {
-            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'. Check symbol does not match move.");
-        }
-        if (causesCheckmate ^ causesCheckmate(move, chessGame)) {
-            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'. Checkmate symbol does not match move.");
-        }
-
-        // Return Move
         return move;
     }
 
+    /**
+     * Returns the SAN of a legal move, see {@link SAN}.
+     *
+     * @param move The move, which must be legal in the game's current position.
+     * @param chessGame The game, before the move is made.
+     * @return The move in SAN.
+     */
     public static String toAlgebraic(Move move, ChessGame chessGame) {
-        StringBuilder sb = new StringBuilder();
-        Position initialPosition = move.initialPosition();
-        Position finalPosition = move.finalPosition();
-        char promotionPiece = move.promotionPiece();
-        Piece pieceToMove = chessGame.board.getPieceAt(initialPosition);
-        boolean isCapture = isCapture(move, chessGame);
-
         // Early Check
         if (!chessGame.isMoveLegal(move)) {
             throw new IllegalMoveException("Illegal Move: Make sure to call toAlgebraic() before making move.");
         }
-        assert (pieceToMove != null);
-
-        // Castling
-        if (pieceToMove instanceof King) {
-            // Short
-            if (((King) pieceToMove).isCastleAttempt(move, true)) {
-                return "O-O";
-            }
-            // Long
-            if (((King) pieceToMove).isCastleAttempt(move, false)) {
-                return "O-O-O";
-            }
-        }
-
-        // Add Piece Char
-        if (!(pieceToMove instanceof Pawn)) {
-            sb.append(Character.toUpperCase(pieceToMove.toChar()));
-        }
-
-        // Add Initial Position
-        sb.append(getAmbiguity(move, chessGame));
-
-        // Add Capture
-        if (isCapture) {
-            sb.append("x");
-        }
-
-        // Add Final Position
-        sb.append(finalPosition.toAlgebraic());
-
-        // Add Promotion
-        if (promotionPiece != '\0') {
-            sb.append("=").append(promotionPiece);
-        }
-
-        // Add Check and Checkmate
-        if (causesCheckmate(move, chessGame)) {
-            sb.append("#");
-        } else if (causesCheck(move, chessGame)) {
-            sb.append("+");
-        }
 
-        // Return sb
-        return sb.toString();
+        MoveList legalMoves = new MoveList();
+        chessGame.generateLegalMoves(legalMoves);
+        return SAN.getSAN(PackedMove.fromMove(move, chessGame.board), chessGame.board, legalMoves);
     }
 
     public static Move fromLongAlgebraic(String notation, ChessGame chessGame) {
@@ -330,7 +146,7 @@ public class MoveUtils {
             Position finalPosition = Position.fromAlgebraic(to);
 
             // Create Move
-            Move move = new Move(initialPosition, finalPosition, promotion);
+            Move move = Move.of(initialPosition, finalPosition, promotion);
 
             // Check for promotion
             if (promotion == '\0' && causesPromotion(move, chessGame)) {
@@ -343,7 +159,7 @@ public class MoveUtils {
             }
 
             // Make and Return Move
-            return new Move(initialPosition, finalPosition, promotion);
+            return Move.of(initialPosition, finalPosition, promotion);
         } catch (Exception e) {
             throw new IllegalNotationException("Invalid Long Algebraic Notation: " + notation + "\nError Message: " + e.getMessage());
         }
@@ -5,74 +5,75 @@ import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
 import com.nathanholmberg.chess.engine.game.ChessGame;
 import com.nathanholmberg.chess.engine.types.Move;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 
 public class PGN {
+    /**
+     * Returns the game's movetext followed by its result, if the game is over.
+     * The movetext is kept by the game's {@link com.nathanholmberg.chess.engine.game.MoveHistory} as moves
+     * are played, so the game is not replayed.
+     */
     public static String getPGN(ChessGame chessGame) {
-        StringBuilder pgn = new StringBuilder();
-
-        // Dummy Game
-        ChessGame dummyChessGame = new ChessGame();
-
-        // Loop Through Moves History
-        List<Move> moves = chessGame.getMoveHistory().getMoves();
-        for (Move move : moves) {
-            // Add Move Count
-            if (dummyChessGame.getTurn() == Color.WHITE) {
-                pgn.append(dummyChessGame.getFullMoveNumber()).append(". ");
-            }
-
-            // Move should be legal
-            assert (dummyChessGame.isMoveLegal(move));
-
-            // Add Algebraic Notation
-            pgn.append(MoveUtils.toAlgebraic(move, dummyChessGame));
-            pgn.append(" ");
-
-            // Make Move
-            dummyChessGame.move(move);
-        }
+        String movetext = chessGame.getMoveHistory().getMovetext();
 
         // Add Result
-        if (!chessGame.getResult().isOnGoing()){
-            pgn.append(chessGame.getResult().getScore());
+        if (!chessGame.getResult().isOnGoing()) {
+            return movetext.isEmpty() ? chessGame.getResult().getScore() : movetext + " " + chessGame.getResult().getScore();
         }
-
-        // Return PGN
-        return pgn.toString().trim();
+        return movetext;
     }
 
     public static ChessGame getGame(String pgn) {
-        ChessGame chessGame = new ChessGame();
-
         // Early Throw
         if (pgn == null || pgn.isEmpty()) {
             throw new IllegalNotationException("Illegal PGN Notation: '" + pgn + "'");
         }
 
-        // Split PGN into moves, excluding metadata or headers
-        String gameResult = "";
-        String[] movesArray = pgn.replaceAll("\\n", " ").split("\\s+");
-        for (String moveNotation : movesArray) {
-            if (moveNotation.isEmpty()) { continue; }
-            // Skip turn numbers and results
-            if (moveNotation.matches("^\\d.*")) {
-                gameResult = moveNotation.trim();
-                continue;
-            }
+        // Read the single game
+        PGNReader.Game game;
+        try (PGNReader reader = new PGNReader(new StringReader(pgn))) {
+            game = reader.readGame();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (game == null) {
+            throw new IllegalNotationException("Illegal PGN Notation: '" + pgn + "'");
+        }
+
+        try {
+            return playGame(game);
+        } catch (IllegalNotationException e) {
+            throw new IllegalNotationException("Illegal PGN Notation: '" + pgn + "'\n" + e.getMessage());
+        }
+    }
 
+    /**
+     * Plays a game read by {@link PGNReader}, from its FEN tag when it has one.
+     *
+     * @param game The game.
+     * @return The game played out, ended by its result when the moves alone do not end it.
+     * @throws IllegalNotationException If a move is not legal or the result does not match the moves.
+     */
+    public static ChessGame playGame(PGNReader.Game game) {
+        String fen = game.tags().get("FEN");
+        ChessGame chessGame = fen == null ? new ChessGame() : FEN.getGame(fen);
+
+        // Play Moves
+        for (String moveNotation : game.moves()) {
             try {
                 Move move = MoveUtils.fromAlgebraic(moveNotation, chessGame);
                 chessGame.move(move);
             } catch (Exception e) {
                 throw new IllegalNotationException(
-                        "Illegal PGN Notation: '" + pgn + "'" +
-                        "\nException occurred on move: " + chessGame.getFullMoveNumber() + ". " + moveNotation +
+                        "Exception occurred on move: " + chessGame.getFullMoveNumber() + ". " + moveNotation +
                         "\n" + e.getMessage());
             }
         }
 
         // Check Game Result
+        String gameResult = game.result() == null ? "" : game.result();
         boolean notationSaysGameOver = (
                 gameResult.equals("1-0") ||
                 gameResult.equals("0-1") ||
@@ -92,7 +93,7 @@ public class PGN {
 
         // If game says it's over, but notation does not
         if (!notationSaysGameOver && !chessGame.inPlay()) {
-            throw new IllegalNotationException("Illegal PGN Notation: '" + pgn + "'. Game result does not match notation.");
+            throw new IllegalNotationException("Game result does not match notation.");
         }
 
         // Return
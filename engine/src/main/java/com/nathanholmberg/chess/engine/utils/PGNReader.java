@@ -0,0 +1,317 @@
+package com.nathanholmberg.chess.engine.utils;
+
+import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads games one at a time from a stream of PGN text, such as a database dump with many games.
+ *
+ * <p>The text is scanned character by character through a fixed size buffer, so memory use is bounded
+ * by the largest single game rather than the file. Text already in memory can be read in place instead,
+ * with no buffer of its own. For each game the reader collects the tag pairs and
+ * the SAN of the main line, and skips what it does not keep:</p>
+ * <ul>
+ *   <li>Brace comments, which may span lines, and rest of line comments after a semicolon.</li>
+ *   <li>Lines starting with a percent sign, which PGN reserves for escapes.</li>
+ *   <li>Numeric annotation glyphs ({@code $1}) and move numbers ({@code 12.} and {@code 12...}).</li>
+ *   <li>Variations in parentheses, which may nest.</li>
+ * </ul>
+ * <p>A game ends at its result token, or at the next tag pair when the result is missing.
+ * The moves are not checked here; {@link PGN#playGame(Game)} plays them. After a game that is not
+ * well-formed, {@link #skipToNextTag()} finds the start of the next one so reading can go on.</p>
+ */
+public class PGNReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * A game as read from PGN.
+     *
+     * @param tags The tag pairs, in the order they appeared.
+     * @param moves The SAN of the main line, with any attached annotations such as {@code !?}.
+     * @param result The result token ({@code 1-0}, {@code 0-1}, {@code 1/2-1/2} or {@code *}),
+     *               or {@code null} when the game had none.
+     */
+    public record Game(Map<String, String> tags, List<String> moves, String result) { }
+
+    private final Reader reader;
+    private final char[] buffer;
+    private final StringBuilder token = new StringBuilder();
+    private int position;
+    private int limit;
+    private int lineNumber = 1;
+    private boolean lineStart = true;
+
+    public PGNReader(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * Reads the remaining text of a buffer in place, without copying it.
+     *
+     * @param text The text, which must be backed by an array, such as one from {@link CharBuffer#wrap(char[])}
+     *             or {@link Charset#decode}.
+     */
+    public PGNReader(CharBuffer text) {
+        if (!text.hasArray()) {
+            throw new IllegalArgumentException("Invalid buffer: the text must be backed by an array.");
+        }
+        this.reader = null;
+        this.buffer = text.array();
+        this.position = text.arrayOffset() + text.position();
+        this.limit = text.arrayOffset() + text.limit();
+    }
+
+    public PGNReader(ReadableByteChannel channel, Charset charset) {
+        this(Channels.newReader(channel, charset.newDecoder(), BUFFER_SIZE));
+    }
+
+    public PGNReader(ReadableByteChannel channel) {
+        this(channel, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the next game.
+     *
+     * @return The game, or {@code null} when there are no more games.
+     * @throws IOException If the underlying reader fails.
+     * @throws IllegalNotationException If the text is not well-formed PGN. The message names the line.
+     */
+    public Game readGame() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+        int depth = 0;
+
+        while (true) {
+            int c = peek();
+            if (c < 0) { break; }
+
+            // Escape Line
+            if (c == '%' && lineStart) {
+                skipLine();
+                continue;
+            }
+
+            // A tag after the movetext starts the next game
+            if (c == '[' && (!moves.isEmpty() || depth > 0)) {
+                if (depth > 0) {
+                    throw error("unterminated variation");
+                }
+                return new Game(tags, moves, null);
+            }
+
+            next();
+            switch (c) {
+                case ' ', '\t', '\r', '\n' -> { }
+                case '[' -> readTag(tags);
+                case '{' -> skipComment();
+                case ';' -> skipLine();
+                case '(' -> depth++;
+                case ')' -> {
+                    if (depth == 0) {
+                        throw error("unexpected ')'");
+                    }
+                    depth--;
+                }
+                case '$' -> skipDigits();
+                case '*' -> {
+                    if (depth == 0) {
+                        return new Game(tags, moves, "*");
+                    }
+                }
+                default -> {
+                    if (!isSymbolChar(c)) {
+                        throw error("unexpected character '" + (char) c + "'");
+                    }
+                    if (!readSymbol(c) || depth > 0) { continue; }
+
+                    // Result or Move
+                    String symbol = token.toString();
+                    if (symbol.equals("1-0") || symbol.equals("0-1") || symbol.equals("1/2-1/2")) {
+                        return new Game(tags, moves, symbol);
+                    }
+                    moves.add(symbol);
+                }
+            }
+        }
+
+        // End of Input
+        if (depth > 0) {
+            throw error("unterminated variation");
+        }
+        if (tags.isEmpty() && moves.isEmpty()) {
+            return null;
+        }
+        return new Game(tags, moves, null);
+    }
+
+    /**
+     * Skips ahead to the next tag pair at the start of a line, or to the end of the text. Call it after
+     * {@link #readGame()} throws {@link IllegalNotationException} to go on with the next game.
+     *
+     * @throws IOException If the underlying reader fails.
+     */
+    public void skipToNextTag() throws IOException {
+        while (peek() >= 0 && !(peek() == '[' && lineStart)) {
+            next();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    // Tag pairs, such as [White "Carlsen, Magnus"]
+    private void readTag(Map<String, String> tags) throws IOException {
+        skipSpaces();
+        token.setLength(0);
+        while (peek() >= 0 && (Character.isLetterOrDigit(peek()) || peek() == '_')) {
+            token.append((char) next());
+        }
+        if (token.isEmpty()) {
+            throw error("expected a tag name");
+        }
+        String name = token.toString();
+
+        skipSpaces();
+        if (next() != '"') {
+            throw error("expected a quoted tag value");
+        }
+        token.setLength(0);
+        while (true) {
+            int c = next();
+            if (c < 0 || c == '\n') {
+                throw error("unterminated tag value");
+            }
+            if (c == '"') { break; }
+            if (c == '\\') {
+                c = next();
+                if (c < 0) {
+                    throw error("unterminated tag value");
+                }
+            }
+            token.append((char) c);
+        }
+
+        skipSpaces();
+        if (next() != ']') {
+            throw error("expected ']'");
+        }
+        tags.put(name, token.toString());
+    }
+
+    /**
+     * Reads a symbol starting with {@code first} into {@code token}.
+     *
+     * @return {@code false} when the symbol is only a move number or an annotation, and can be skipped.
+     */
+    private boolean readSymbol(int first) throws IOException {
+        token.setLength(0);
+        token.append((char) first);
+        while (peek() >= 0 && isSymbolChar(peek())) {
+            token.append((char) next());
+        }
+
+        // Move Number, such as 12. or 12...
+        if (peek() == '.') {
+            for (int i = 0; i < token.length(); i++) {
+                if (!Character.isDigit(token.charAt(i))) {
+                    throw error("unexpected '.' after '" + token + "'");
+                }
+            }
+            while (peek() == '.') { next(); }
+            return false;
+        }
+
+        // Annotation on its own, such as !?
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) != '!' && token.charAt(i) != '?') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void skipComment() throws IOException {
+        int startLine = lineNumber;
+        while (true) {
+            int c = next();
+            if (c < 0) {
+                throw new IllegalNotationException("Illegal PGN: unterminated comment starting at line " + startLine + ".");
+            }
+            if (c == '}') { return; }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        while (peek() >= 0 && peek() != '\n') { next(); }
+    }
+
+    private void skipDigits() throws IOException {
+        while (peek() >= 0 && Character.isDigit(peek())) { next(); }
+    }
+
+    private void skipSpaces() throws IOException {
+        while (peek() == ' ' || peek() == '\t') { next(); }
+    }
+
+    private static boolean isSymbolChar(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '+' || c == '#' || c == '=' || c == '/' || c == ':' || c == '_' || c == '!' || c == '?';
+    }
+
+    private IllegalNotationException error(String reason) {
+        return new IllegalNotationException("Illegal PGN at line " + lineNumber + ": " + reason + ".");
+    }
+
+    // Buffer
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private int next() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        char c = buffer[position++];
+        lineStart = c == '\n';
+        if (lineStart) {
+            lineNumber++;
+        }
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        if (reader == null) {
+            return false;
+        }
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
@@ -1,95 +1,71 @@
 package com.nathanholmberg.chess.engine.utils;
 
+import com.nathanholmberg.chess.engine.attacks.Attacks;
 import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
 import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
 import com.nathanholmberg.chess.engine.game.Board;
 import com.nathanholmberg.chess.engine.pieces.*;
 import com.nathanholmberg.chess.engine.types.Move;
-import com.nathanholmberg.chess.engine.types.Position;
-
-import java.util.Map;
 
 public class PieceUtils {
-    // Converting To and From Abbreviation
-    private static final Map<Class<? extends Piece>, Character> pieceToChar = Map.of(
-            King.class, 'K',
-            Queen.class, 'Q',
-            Rook.class, 'R',
-            Bishop.class, 'B',
-            Knight.class, 'N',
-            Pawn.class, 'P'
-    );
-    private static final Map<Character, Class<? extends Piece>> charToPiece = Map.of(
-            'K', King.class,
-            'Q', Queen.class,
-            'R', Rook.class,
-            'B', Bishop.class,
-            'N', Knight.class,
-            'P', Pawn.class
-    );
+    // Pieces hold nothing but their color, so one shared instance per type and color is enough
+    private static final Piece[] PIECES = {
+            new Pawn(Color.WHITE), new Knight(Color.WHITE), new Bishop(Color.WHITE),
+            new Rook(Color.WHITE), new Queen(Color.WHITE), new King(Color.WHITE),
+            new Pawn(Color.BLACK), new Knight(Color.BLACK), new Bishop(Color.BLACK),
+            new Rook(Color.BLACK), new Queen(Color.BLACK), new King(Color.BLACK)
+    };
+
+    /**
+     * Returns the shared piece of the given type and color.
+     *
+     * @param type The piece type.
+     * @param color The piece color.
+     * @return The shared piece instance.
+     */
+    public static Piece getPiece(PieceType type, Color color) {
+        return PIECES[color.ordinal() * 6 + type.ordinal()];
+    }
 
     public static char pieceToChar(Piece piece) {
-        char symbol = pieceToChar.get(piece.getClass());
+        char symbol = piece.getType().toChar();
         return piece.getColor() == Color.WHITE ? symbol : Character.toLowerCase(symbol);
     }
 
     public static Piece getDeepCopy(Piece piece) {
-        return charToPiece(piece.toChar());
+        // Pieces are immutable, so the copy is the shared instance
+        return getPiece(piece.getType(), piece.getColor());
     }
 
     public static Piece charToPiece(char symbol) {
-        Class<? extends Piece> pieceClass = charToPiece.get(Character.toUpperCase(symbol));
-        if (pieceClass == null) {
-            // Invalid input handling
-            throw new IllegalNotationException("Invalid character for piece: " + symbol + ". Valid characters are: K, Q, R, B, N, P.");
-        }
-        try {
-            Color color = Character.isUpperCase(symbol) ? Color.WHITE : Color.BLACK;
-            return pieceClass.getDeclaredConstructor(Color.class).newInstance(color);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create piece from character", e);
-        }
+        Color color = Character.isUpperCase(symbol) ? Color.WHITE : Color.BLACK;
+        return charToPiece(symbol, color);
     }
 
     public static Piece charToPiece(char symbol, Color color) {
-        Class<? extends Piece> pieceClass = charToPiece.get(Character.toUpperCase(symbol));
-        if (pieceClass == null) {
+        PieceType type;
+        try {
+            type = PieceType.fromChar(Character.toUpperCase(symbol));
+        } catch (IllegalArgumentException e) {
             // Invalid input handling
             throw new IllegalNotationException("Invalid character for piece: " + symbol + ". Valid characters are: K, Q, R, B, N, P.");
         }
-        try {
-            return pieceClass.getDeclaredConstructor(Color.class).newInstance(color);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create piece from character", e);
-        }
+        return getPiece(type, color);
     }
 
     /**
      * Checks if the path between two positions on the board is clear of any pieces.
      * This method verifies whether there are no blocking pieces along the straight-line path
-     * between the `initialPosition` and the `finalPosition`. It checks file and rank movement
-     * according to the direction of the move and is primarily used to validate piece movement
-     * for linear-moving chess pieces (e.g., rooks, bishops, and queens).
+     * between the `initialPosition` and the `finalPosition`. The squares in between come from
+     * the precomputed {@link Attacks#between(int, int)} table and are tested against the occupancy
+     * in one step. Rooks, bishops and queens look up their attacks directly from {@link Attacks}.
      * This method assumes that:
      * - The move must occur in a straight line (along a rank, file, or diagonal).
      * - The final position is not checked for occupancy, only the intermediate positions.
      */
     public static boolean isPathClear(Move move, Board board) {
-        // Collapse Move Obj
-        Position initialPosition = move.initialPosition();
-        Position finalPosition = move.finalPosition();
-
-        // Def some stuff
-        int fileDirection = Integer.compare(finalPosition.file(), initialPosition.file());
-        int rankDirection = Integer.compare(finalPosition.rank(), initialPosition.rank());
-
-        Position current = initialPosition.move(fileDirection, rankDirection);
-        while (!current.equals(finalPosition)) {
-            if (board.getPieceAt(current) != null) {
-                return false;
-            }
-            current = current.move(fileDirection, rankDirection);
-        }
-        return true;
+        long between = Attacks.between(move.initialPosition().index(), move.finalPosition().index());
+        return (between & board.getOccupancy()) == 0;
     }
 }
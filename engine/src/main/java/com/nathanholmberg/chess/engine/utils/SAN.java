@@ -0,0 +1,401 @@
+package com.nathanholmberg.chess.engine.utils;
+
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
+import com.nathanholmberg.chess.engine.exceptions.IllegalMoveException;
+import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
+import com.nathanholmberg.chess.engine.game.Board;
+import com.nathanholmberg.chess.engine.game.MoveGenerator;
+import com.nathanholmberg.chess.engine.pieces.Piece;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.MoveList;
+import com.nathanholmberg.chess.engine.types.PackedMove;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Standard algebraic notation (SAN) for packed moves.
+ *
+ * <p>The writer works from the legal moves already generated for the position: disambiguation scans
+ * that list for another piece of the same type reaching the same square, and the check suffix comes
+ * from a single make/unmake with an attack query on the opponent's king. Only a check needs the
+ * opponent's moves, to tell a check from a checkmate.</p>
+ *
+ * <p>{@link #getSANList(Board, Color, List)} renders a whole game in one forward pass, where the moves
+ * generated after each ply both decide that ply's checkmate and disambiguate the next one.</p>
+ *
+ * <p>{@link #parse(CharSequence, Board, MoveList)} reads the notation once into its parts (piece,
+ * disambiguation, capture, target, promotion and suffix) and picks the one legal move they describe.
+ * It accepts a missing {@code x} or check suffix, castling with zeros and trailing {@code !} and {@code ?}
+ * annotations, and reports errors with the index of the offending character.</p>
+ */
+public class SAN {
+    /**
+     * Returns the SAN of a legal move.
+     *
+     * @param move The packed move, which must be in {@code legalMoves}.
+     * @param board The board before the move. It is left as it was.
+     * @param legalMoves The legal moves of the position.
+     * @return The move in SAN, with its check or checkmate suffix.
+     */
+    public static String getSAN(int move, Board board, MoveList legalMoves) {
+        StringBuilder sb = new StringBuilder(8);
+        appendSAN(sb, move, board, legalMoves);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the SAN of a legal move to {@code sb}.
+     *
+     * @param sb The builder to append to.
+     * @param move The packed move, which must be in {@code legalMoves}.
+     * @param board The board before the move. It is left as it was.
+     * @param legalMoves The legal moves of the position.
+     */
+    public static void appendSAN(StringBuilder sb, int move, Board board, MoveList legalMoves) {
+        Color opponent = board.getPieceAt(PackedMove.getFrom(move)).getColor().inverse();
+        appendMove(sb, move, board, legalMoves);
+
+        // Check and Checkmate
+        long undo = board.makeMove(move);
+        try {
+            if (board.isKingInCheck(opponent)) {
+                MoveList replies = new MoveList();
+                MoveGenerator.generateLegalMoves(board, opponent, replies);
+                sb.append(replies.isEmpty() ? '#' : '+');
+            }
+        } finally {
+            board.unmakeMove(undo);
+        }
+    }
+
+    /**
+     * Renders a sequence of moves in SAN, playing them forward once on a copy of the board.
+     *
+     * @param board The board the moves start from. It is not changed.
+     * @param turn The side to play the first move.
+     * @param moves The moves, in order.
+     * @return The SAN of each move.
+     * @throws IllegalMoveException If a move is not legal where it is played.
+     */
+    public static List<String> getSANList(Board board, Color turn, List<Move> moves) {
+        List<String> sans = new ArrayList<>(moves.size());
+        Board copy = board.getDeepCopy();
+        MoveList legalMoves = new MoveList();
+        MoveList replies = new MoveList();
+        MoveGenerator.generateLegalMoves(copy, turn, legalMoves);
+
+        StringBuilder sb = new StringBuilder(8);
+        for (Move move : moves) {
+            int packedMove = PackedMove.fromMove(move, copy);
+            if (!legalMoves.contains(packedMove)) {
+                throw new IllegalMoveException("Illegal Move: " + move + " at ply " + (sans.size() + 1) + ".");
+            }
+
+            sb.setLength(0);
+            appendMove(sb, packedMove, copy, legalMoves);
+
+            // Play the move, and let the replies decide the suffix
+            copy.makeMove(packedMove);
+            turn = turn.inverse();
+            replies.clear();
+            MoveGenerator.generateLegalMoves(copy, turn, replies);
+            if (copy.isKingInCheck(turn)) {
+                sb.append(replies.isEmpty() ? '#' : '+');
+            }
+            sans.add(sb.toString());
+
+            // The replies are the next position's legal moves
+            MoveList swap = legalMoves;
+            legalMoves = replies;
+            replies = swap;
+        }
+        return sans;
+    }
+
+    /**
+     * Parses SAN into the legal move it describes.
+     *
+     * @param san The notation, such as {@code Nbd7}, {@code exd5}, {@code e8=Q+} or {@code O-O}.
+     * @param board The board the move is played on. It is left as it was.
+     * @param legalMoves The legal moves of the position.
+     * @return The packed move.
+     * @throws IllegalNotationException If the notation is malformed, matches no legal move or more than one,
+     * or has a capture or check symbol the move does not have. {@link IllegalNotationException#getErrorIndex()}
+     * points at the offending character.
+     */
+    public static int parse(CharSequence san, Board board, MoveList legalMoves) {
+        if (san == null || san.isEmpty()) {
+            throw notationError(san, 0, "notation is empty");
+        }
+        int length = san.length();
+        int i = 0;
+        int move;
+
+        // Castling, with letters or zeros
+        int castleLength = castleLength(san);
+        if (castleLength > 0) {
+            int flags = castleLength == 5 ? PackedMove.QUEEN_CASTLE : PackedMove.KING_CASTLE;
+            move = PackedMove.NONE;
+            for (int j = 0; j < legalMoves.size(); j++) {
+                if (PackedMove.getFlags(legalMoves.get(j)) == flags) {
+                    move = legalMoves.get(j);
+                }
+            }
+            if (move == PackedMove.NONE) {
+                throw notationError(san, 0, "castling is not legal");
+            }
+            i = castleLength;
+        } else {
+            // Piece
+            PieceType type = PieceType.PAWN;
+            if ("NBRQK".indexOf(san.charAt(0)) >= 0) {
+                type = PieceType.fromChar(san.charAt(0));
+                i++;
+            }
+
+            // Disambiguation, capture and target, as up to four file and rank characters
+            int[] coordinates = new int[4];
+            int count = 0;
+            int captureIndex = -1;
+            for (; i < length; i++) {
+                char c = san.charAt(i);
+                if ((c >= 'a' && c <= 'h') || (c >= '1' && c <= '8')) {
+                    if (count == 4) {
+                        throw notationError(san, i, "too many coordinates");
+                    }
+                    coordinates[count++] = i;
+                } else if (c == 'x' || c == ':') {
+                    if (captureIndex >= 0 || count > 2) {
+                        throw notationError(san, i, "unexpected capture");
+                    }
+                    captureIndex = i;
+                } else {
+                    break;
+                }
+            }
+            if (count < 2 || !isRank(san.charAt(coordinates[count - 1]))) {
+                throw notationError(san, i, "expected the target square");
+            }
+            if (!isFile(san.charAt(coordinates[count - 2]))) {
+                throw notationError(san, coordinates[count - 2], "expected the target square");
+            }
+            if (captureIndex > coordinates[count - 2]) {
+                throw notationError(san, captureIndex, "unexpected capture");
+            }
+            int to = square(san.charAt(coordinates[count - 2]), san.charAt(coordinates[count - 1]));
+
+            // Disambiguation is a file, a rank or both
+            int fromFile = -1;
+            int fromRank = -1;
+            for (int j = 0; j < count - 2; j++) {
+                char c = san.charAt(coordinates[j]);
+                if (isFile(c) && j == 0 && fromRank < 0) {
+                    fromFile = c - 'a';
+                } else if (isRank(c) && fromRank < 0) {
+                    fromRank = c - '1';
+                } else {
+                    throw notationError(san, coordinates[j], "unexpected disambiguation");
+                }
+            }
+
+            // Promotion, with or without '='
+            PieceType promotionType = null;
+            int promotionIndex = i;
+            if (i < length && san.charAt(i) == '=') {
+                i++;
+                promotionIndex = i;
+                if (i == length || "NBRQnbrq".indexOf(san.charAt(i)) < 0) {
+                    throw notationError(san, i, "expected a promotion piece");
+                }
+            }
+            if (i < length && "NBRQnbrq".indexOf(san.charAt(i)) >= 0) {
+                promotionType = PieceType.fromChar(san.charAt(i));
+                i++;
+            }
+
+            // Match against the legal moves
+            move = PackedMove.NONE;
+            boolean needsPromotion = false;
+            for (int j = 0; j < legalMoves.size(); j++) {
+                int legalMove = legalMoves.get(j);
+                int from = PackedMove.getFrom(legalMove);
+                if (PackedMove.getTo(legalMove) != to || board.getPieceAt(from).getType() != type) { continue; }
+                if (fromFile >= 0 && (from & 7) != fromFile) { continue; }
+                if (fromRank >= 0 && (from >>> 3) != fromRank) { continue; }
+                if (PackedMove.getPromotionType(legalMove) != promotionType) {
+                    needsPromotion |= promotionType == null;
+                    continue;
+                }
+                if (move != PackedMove.NONE) {
+                    throw notationError(san, coordinates[count - 2], "ambiguous, more than one piece can move there");
+                }
+                move = legalMove;
+            }
+            if (move == PackedMove.NONE) {
+                if (needsPromotion) {
+                    throw notationError(san, promotionIndex, "expected a promotion piece");
+                }
+                if (promotionType != null) {
+                    throw notationError(san, promotionIndex - 1, "move is not a promotion");
+                }
+                throw notationError(san, 0, "no legal move matches");
+            }
+            if (captureIndex >= 0 && !PackedMove.isCapture(move)) {
+                throw notationError(san, captureIndex, "move is not a capture");
+            }
+        }
+
+        // Check or checkmate suffix, then annotations
+        if (i < length && (san.charAt(i) == '+' || san.charAt(i) == '#')) {
+            char suffix = san.charAt(i);
+            if (suffix == '+' ? !givesCheck(move, board) : !givesCheckmate(move, board)) {
+                throw notationError(san, i, suffix == '+' ? "move does not give check" : "move does not give checkmate");
+            }
+            i++;
+        }
+        while (i < length && (san.charAt(i) == '!' || san.charAt(i) == '?')) {
+            i++;
+        }
+        if (i < length) {
+            throw notationError(san, i, "unexpected character");
+        }
+        return move;
+    }
+
+    // Returns 3 for kingside castling, 5 for queenside castling and 0 otherwise
+    private static int castleLength(CharSequence san) {
+        char zero = san.charAt(0);
+        if (zero != 'O' && zero != '0') { return 0; }
+        int length = 1;
+        while (length < 5 && length + 1 < san.length() && san.charAt(length) == '-' && san.charAt(length + 1) == zero) {
+            length += 2;
+        }
+        return length == 1 ? 0 : length;
+    }
+
+    private static boolean givesCheck(int move, Board board) {
+        Color opponent = board.getPieceAt(PackedMove.getFrom(move)).getColor().inverse();
+        long undo = board.makeMove(move);
+        try {
+            return board.isKingInCheck(opponent);
+        } finally {
+            board.unmakeMove(undo);
+        }
+    }
+
+    private static boolean givesCheckmate(int move, Board board) {
+        Color opponent = board.getPieceAt(PackedMove.getFrom(move)).getColor().inverse();
+        long undo = board.makeMove(move);
+        try {
+            if (!board.isKingInCheck(opponent)) { return false; }
+            MoveList replies = new MoveList();
+            MoveGenerator.generateLegalMoves(board, opponent, replies);
+            return replies.isEmpty();
+        } finally {
+            board.unmakeMove(undo);
+        }
+    }
+
+    private static IllegalNotationException notationError(CharSequence san, int index, String reason) {
+        return new IllegalNotationException("Illegal Algebraic Notation: '" + san + "' at index " + index + ": " + reason + ".", index);
+    }
+
+    private static boolean isFile(char c) { return c >= 'a' && c <= 'h'; }
+    private static boolean isRank(char c) { return c >= '1' && c <= '8'; }
+    private static int square(char file, char rank) { return (rank - '1') * 8 + (file - 'a'); }
+
+    /**
+     * Appends the SAN of a legal move without its check suffix, for callers that play the move and
+     * generate the replies anyway, and can add the suffix from those.
+     *
+     * @param sb The builder to append to.
+     * @param move The packed move, which must be in {@code legalMoves}.
+     * @param board The board before the move.
+     * @param legalMoves The legal moves of the position.
+     */
+    public static void appendMove(StringBuilder sb, int move, Board board, MoveList legalMoves) {
+        int from = PackedMove.getFrom(move);
+        int to = PackedMove.getTo(move);
+        int flags = PackedMove.getFlags(move);
+        Piece pieceToMove = board.getPieceAt(from);
+
+        // Castling
+        if (flags == PackedMove.KING_CASTLE) {
+            sb.append("O-O");
+            return;
+        }
+        if (flags == PackedMove.QUEEN_CASTLE) {
+            sb.append("O-O-O");
+            return;
+        }
+
+        // Piece and Ambiguity
+        if (pieceToMove.getType() == PieceType.PAWN) {
+            if (PackedMove.isCapture(move)) {
+                sb.append(fileChar(from));
+            }
+        } else {
+            sb.append(pieceToMove.getType().toChar());
+            appendAmbiguity(sb, move, board, legalMoves);
+        }
+
+        // Capture
+        if (PackedMove.isCapture(move)) {
+            sb.append('x');
+        }
+
+        // Final Square
+        sb.append(fileChar(to)).append(rankChar(to));
+
+        // Promotion
+        if (PackedMove.isPromotion(move)) {
+            sb.append('=').append(PackedMove.getPromotionPiece(move));
+        }
+    }
+
+    /**
+     * Appends the file, rank or square of the starting square when another piece of the same type
+     * can legally reach the same square: the file when no rival shares it, otherwise the rank when
+     * no rival shares that, and the full square when neither is unique.
+     */
+    private static void appendAmbiguity(StringBuilder sb, int move, Board board, MoveList legalMoves) {
+        int from = PackedMove.getFrom(move);
+        int to = PackedMove.getTo(move);
+        PieceType type = board.getPieceAt(from).getType();
+
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int other = legalMoves.get(i);
+            int otherFrom = PackedMove.getFrom(other);
+
+            // Skip Other Squares, Same Piece and Wrong Type
+            if (PackedMove.getTo(other) != to || otherFrom == from) { continue; }
+            if (board.getPieceAt(otherFrom).getType() != type) { continue; }
+
+            ambiguous = true;
+            sameFile |= (otherFrom & 7) == (from & 7);
+            sameRank |= (otherFrom >>> 3) == (from >>> 3);
+        }
+
+        if (!ambiguous) { return; }
+        if (!sameFile) {
+            sb.append(fileChar(from));
+        } else if (!sameRank) {
+            sb.append(rankChar(from));
+        } else {
+            sb.append(fileChar(from)).append(rankChar(from));
+        }
+    }
+
+    private static char fileChar(int square) {
+        return (char) ('a' + (square & 7));
+    }
+
+    private static char rankChar(int square) {
+        return (char) ('1' + (square >>> 3));
+    }
+}
@@ -0,0 +1,82 @@
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.Position;
+import com.nathanholmberg.chess.engine.utils.FEN;
+import com.nathanholmberg.chess.engine.utils.PieceUtils;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the shared <code>Position</code>, <code>Move</code> and piece instances.
+ *
+ * <p>Move validation runs through <code>Position.of</code>, <code>Move.of</code> and the shared pieces
+ * so that once warm it allocates nothing. The allocation test reads the thread's allocation counter
+ * from <code>ThreadMXBean</code> around many calls to <code>ChessGame.isMoveLegal</code>.</p>
+ */
+public class AllocationTest {
+    private static final String[] FENS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b KQkq - 0 1",
+            "r3kb1r/pp2p1pp/3qb3/1PpPP3/4n3/1n1PBPPB/P1Q5/RN2K1NR w KQkq c6 0 16"
+    };
+
+    @Test
+    public void sharedInstancesTest() {
+        assertSame(Position.of(4, 1), Position.fromAlgebraic("e2"));
+        assertSame(Position.of(12), Position.of(4, 1));
+        assertSame(Position.of(0, 0), Position.of(7, 7).inverse());
+        assertSame(Move.of(Position.of(12), Position.of(28)), Move.of(Position.of(12), Position.of(28), '\0'));
+        assertSame(PieceUtils.charToPiece('q'), PieceUtils.charToPiece('q').getDeepCopy());
+        assertSame(new ChessGame().board.getPieceAt(Position.of(0)), new ChessGame().board.getPieceAt(Position.of(7)));
+    }
+
+    @Test
+    public void isMoveLegalAllocatesNothingTest() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // Set up the games and their moves up front
+        ChessGame[] chessGames = new ChessGame[FENS.length];
+        Move[][] moves = new Move[FENS.length][];
+        for (int i = 0; i < FENS.length; i++) {
+            chessGames[i] = FEN.getGame(FENS[i]);
+            List<Move> legalMoves = chessGames[i].generateLegalMoves();
+            moves[i] = legalMoves.toArray(new Move[0]);
+        }
+
+        // Warm Up
+        int validated = validateAll(chessGames, moves, 200);
+        assertTrue(validated > 0);
+
+        // Measure
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        validated = validateAll(chessGames, moves, 200);
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        // Less than one byte per move leaves room only for the counter itself
+        assertEquals(0, allocated / validated, "Allocated " + allocated + " bytes over " + validated + " validated moves");
+    }
+
+    private static int validateAll(ChessGame[] chessGames, Move[][] moves, int iterations) {
+        int validated = 0;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int i = 0; i < chessGames.length; i++) {
+                for (Move move : moves[i]) {
+                    if (!chessGames[i].isMoveLegal(move)) {
+                        throw new IllegalStateException("Generated move is not legal: " + move);
+                    }
+                    validated++;
+                }
+            }
+        }
+        return validated;
+    }
+}
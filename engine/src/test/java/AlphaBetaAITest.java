@@ -0,0 +1,135 @@
+import com.nathanholmberg.chess.engine.ai.AlphaBetaAI;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.utils.FEN;
+import com.nathanholmberg.chess.engine.utils.MoveUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the alpha-beta search AI.
+ *
+ * <p>These tests check that the search finds short mates and free material, that the quiescence search
+ * keeps it from taking defended pieces at the horizon, that it keeps to its depth and node budgets,
+ * reports every completed iteration, and sees draws by repetition.</p>
+ */
+public class AlphaBetaAITest {
+    @Test
+    public void mateInOneTest() {
+        // Back rank mate
+        ChessGame chessGame = FEN.getGame("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        AlphaBetaAI.SearchResult result = new AlphaBetaAI(4).search(chessGame);
+
+        assertEquals("Ra8#", MoveUtils.toAlgebraic(result.move(), chessGame));
+        assertEquals(AlphaBetaAI.MATE_SCORE - 1, result.score());
+        assertTrue(result.isMate());
+    }
+
+    @Test
+    public void mateInTwoTest() {
+        // 1. Kb6 Kb8 2. Rh8#
+        ChessGame chessGame = FEN.getGame("k7/8/2K5/8/8/8/8/7R w - - 0 1");
+        AlphaBetaAI.SearchResult result = new AlphaBetaAI(5).search(chessGame);
+
+        assertTrue(result.isMate());
+        assertEquals(AlphaBetaAI.MATE_SCORE - 3, result.score());
+        assertEquals(result.move(), result.principalVariation().get(0));
+    }
+
+    @Test
+    public void winsMaterialTest() {
+        // The queen on d5 is free
+        ChessGame chessGame = FEN.getGame("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+        Move move = new AlphaBetaAI(3).getMove(chessGame);
+        assertEquals("Rxd5", MoveUtils.toAlgebraic(move, chessGame));
+    }
+
+    @Test
+    public void horizonTest() {
+        // The pawn on d5 is defended, which only the quiescence search sees at depth 1
+        ChessGame chessGame = FEN.getGame("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1");
+        AlphaBetaAI.SearchResult result = new AlphaBetaAI(1).search(chessGame);
+        assertNotEquals("Qxd5", MoveUtils.toAlgebraic(result.move(), chessGame));
+
+        // A free piece is still taken, and mates at the horizon are still seen
+        chessGame = FEN.getGame("4k3/8/8/3p4/8/8/8/3QK3 w - - 0 1");
+        assertEquals("Qxd5", MoveUtils.toAlgebraic(new AlphaBetaAI(1).getMove(chessGame), chessGame));
+        assertTrue(new AlphaBetaAI(1).search(FEN.getGame("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1")).isMate());
+    }
+
+    @Test
+    public void budgetTest() {
+        ChessGame chessGame = new ChessGame();
+
+        // Node budget, the first iteration always completes
+        AlphaBetaAI nodeLimited = new AlphaBetaAI(AlphaBetaAI.MAX_DEPTH, Long.MAX_VALUE, 5000);
+        AlphaBetaAI.SearchResult result = nodeLimited.search(chessGame);
+        assertTrue(result.nodes() <= 5000 + 1024);
+        assertTrue(result.depth() >= 1);
+        assertTrue(chessGame.isMoveLegal(result.move()));
+
+        // Depth budget, with each iteration reported
+        List<Integer> depths = new ArrayList<>();
+        AlphaBetaAI depthLimited = new AlphaBetaAI(3);
+        depthLimited.setListener(iteration -> depths.add(iteration.depth()));
+        result = depthLimited.search(chessGame);
+        assertEquals(List.of(1, 2, 3), depths);
+        assertEquals(3, result.depth());
+        assertEquals(result, depthLimited.getLastResult());
+
+        // Invalid budgets
+        assertThrows(IllegalArgumentException.class, () -> new AlphaBetaAI(0));
+        assertThrows(IllegalArgumentException.class, () -> new AlphaBetaAI(4, 0, 100));
+    }
+
+    @Test
+    public void drawTest() {
+        // A queen up, but every move reaches the fifty move rule
+        assertEquals(0, new AlphaBetaAI(2).search(FEN.getGame("4k3/8/8/8/8/8/8/3QK3 w - - 99 80")).score());
+        assertTrue(new AlphaBetaAI(2).search(FEN.getGame("4k3/8/8/8/8/8/8/3QK3 w - - 0 80")).score() > 800);
+
+        // Mate on the hundredth half-move still wins
+        ChessGame matingGame = FEN.getGame("6k1/5ppp/8/8/8/8/8/R5K1 w - - 99 80");
+        AlphaBetaAI.SearchResult mate = new AlphaBetaAI(3).search(matingGame);
+        assertTrue(mate.isMate());
+        assertEquals("Ra8#", MoveUtils.toAlgebraic(mate.move(), matingGame));
+
+        // A queen down, black can repeat the start by going back with the king
+        ChessGame chessGame = FEN.getGame("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+        for (String san : new String[] {"Kf1", "Kf8", "Ke1"}) {
+            chessGame.move(MoveUtils.fromAlgebraic(san, chessGame));
+        }
+        AlphaBetaAI.SearchResult result = new AlphaBetaAI(1).search(chessGame);
+        assertEquals(0, result.score());
+        assertEquals("Ke8", MoveUtils.toAlgebraic(result.move(), chessGame));
+    }
+
+    @Test
+    public void threadsTest() {
+        // Helpers share the table, the main thread's move is played
+        ChessGame chessGame = FEN.getGame("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        AlphaBetaAI.SearchResult result = new AlphaBetaAI(4, Long.MAX_VALUE, Long.MAX_VALUE, 3).search(chessGame);
+        assertEquals("Ra8#", MoveUtils.toAlgebraic(result.move(), chessGame));
+
+        // Time budget with several threads
+        chessGame = new ChessGame();
+        AlphaBetaAI timeLimited = new AlphaBetaAI(AlphaBetaAI.MAX_DEPTH, 200, Long.MAX_VALUE, 2);
+        result = timeLimited.search(chessGame);
+        assertTrue(result.depth() >= 1 && result.depth() < AlphaBetaAI.MAX_DEPTH, "depth " + result.depth());
+        assertTrue(chessGame.isMoveLegal(result.move()));
+        assertThrows(IllegalArgumentException.class, () -> new AlphaBetaAI(4, 100, 100, 0));
+    }
+
+    @Test
+    public void noMovesTest() {
+        ChessGame chessGame = FEN.getGame("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        assertThrows(IllegalStateException.class, () -> new AlphaBetaAI(2).search(chessGame));
+    }
+}
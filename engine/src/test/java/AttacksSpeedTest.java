@@ -0,0 +1,103 @@
+import com.nathanholmberg.chess.engine.attacks.Attacks;
+import com.nathanholmberg.chess.engine.game.Board;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.Position;
+import com.nathanholmberg.chess.engine.utils.FEN;
+
+/**
+ * A utility for benchmarking the precomputed attack tables against walking the path square by square.
+ *
+ * <p>Validates every rook, bishop and queen style move between all pairs of squares on a busy board,
+ * once by walking <code>Position</code> objects along the path the way the pieces used to, and once by
+ * looking up the magic bitboard attacks. Both must agree, and the time for each is printed.</p>
+ */
+public class AttacksSpeedTest {
+    private static final int ITERATIONS = 200;
+
+    public static void main(String[] args) {
+        // Class loading builds the tables
+        long startTime = System.nanoTime();
+        Attacks.rook(0, 0L);
+        long endTime = System.nanoTime();
+        System.out.println("Table initialization time (ms): " + (endTime - startTime) / 1_000_000.0);
+
+        // Setup Board
+        Board board = FEN.getGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1").board;
+
+        // Warm Up
+        long expected = runPathWalk(board);
+        if (expected != runMagic(board)) {
+            throw new IllegalStateException("Path walk and magic lookup disagree");
+        }
+
+        // Suggest garbage collection
+        System.gc();
+        try { Thread.sleep(100); } catch (InterruptedException ignored) { }
+
+        // Path Walk
+        startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) { runPathWalk(board); }
+        endTime = System.nanoTime();
+        double pathWalkTime = (endTime - startTime) / 1_000_000.0;
+
+        // Magic Lookup
+        startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) { runMagic(board); }
+        endTime = System.nanoTime();
+        double magicTime = (endTime - startTime) / 1_000_000.0;
+
+        // Print
+        System.out.println("Reachable (from, to) pairs per run: " + expected);
+        System.out.println("Path walk time (ms): " + pathWalkTime);
+        System.out.println("Magic lookup time (ms): " + magicTime);
+        System.out.println("Speed up: " + pathWalkTime / magicTime + "x");
+    }
+
+    private static long runPathWalk(Board board) {
+        long count = 0;
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                Position initialPosition = Position.of(from);
+                Position finalPosition = Position.of(to);
+                int fileDelta = Math.abs(finalPosition.file() - initialPosition.file());
+                int rankDelta = Math.abs(finalPosition.rank() - initialPosition.rank());
+                boolean aligned = fileDelta == 0 || rankDelta == 0 || fileDelta == rankDelta;
+                if (from != to && aligned && isPathClear(Move.of(initialPosition, finalPosition), board)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long runMagic(Board board) {
+        long occupied = board.getOccupancy();
+        long count = 0;
+        for (int from = 0; from < 64; from++) {
+            long attacks = Attacks.queen(from, occupied);
+            for (int to = 0; to < 64; to++) {
+                if ((attacks & (1L << to)) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // The path walk the sliding pieces used before the attack tables
+    private static boolean isPathClear(Move move, Board board) {
+        Position initialPosition = move.initialPosition();
+        Position finalPosition = move.finalPosition();
+        int fileDirection = Integer.compare(finalPosition.file(), initialPosition.file());
+        int rankDirection = Integer.compare(finalPosition.rank(), initialPosition.rank());
+
+        Position current = initialPosition.move(fileDirection, rankDirection);
+        while (!current.equals(finalPosition)) {
+            if (board.getPieceAt(current) != null) {
+                return false;
+            }
+            current = current.move(fileDirection, rankDirection);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+import com.nathanholmberg.chess.engine.attacks.Attacks;
+import com.nathanholmberg.chess.engine.enums.Color;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the precomputed attack tables in <code>Attacks</code>.
+ *
+ * <p>Every lookup is compared against a plain walk over the board, square by square,
+ * for many random occupancies on every square.</p>
+ */
+public class AttacksTest {
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final int[][] KNIGHT_STEPS = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+    private static final int[][] KING_STEPS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static long walk(int square, long occupied, int[][] directions, boolean slide) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int file = (square & 7) + direction[0];
+            int rank = (square >>> 3) + direction[1];
+            while (file >= 0 && file < 8 && rank >= 0 && rank < 8) {
+                long bit = 1L << (rank * 8 + file);
+                attacks |= bit;
+                if (!slide || (occupied & bit) != 0) { break; }
+                file += direction[0];
+                rank += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    @Test
+    public void leaperAttacksTest() {
+        for (int square = 0; square < 64; square++) {
+            assertEquals(walk(square, 0L, KNIGHT_STEPS, false), Attacks.knight(square));
+            assertEquals(walk(square, 0L, KING_STEPS, false), Attacks.king(square));
+            assertEquals(walk(square, 0L, new int[][]{{-1, 1}, {1, 1}}, false), Attacks.pawn(square, Color.WHITE));
+            assertEquals(walk(square, 0L, new int[][]{{-1, -1}, {1, -1}}, false), Attacks.pawn(square, Color.BLACK));
+        }
+    }
+
+    @Test
+    public void slidingAttacksTest() {
+        Random random = new Random(2024);
+        for (int square = 0; square < 64; square++) {
+            for (int i = 0; i < 1000; i++) {
+                // Sparse and dense boards
+                long occupied = i % 2 == 0 ? random.nextLong() & random.nextLong() : random.nextLong() | random.nextLong();
+                assertEquals(walk(square, occupied, ROOK_DIRECTIONS, true), Attacks.rook(square, occupied));
+                assertEquals(walk(square, occupied, BISHOP_DIRECTIONS, true), Attacks.bishop(square, occupied));
+            }
+        }
+    }
+
+    @Test
+    public void lineTablesTest() {
+        // a1 - h8 diagonal
+        assertEquals(0x0040201008040200L, Attacks.between(0, 63));
+        assertEquals(0x8040201008040201L, Attacks.line(9, 18));
+        // e1 - e8 file
+        assertEquals(0x0010101010101000L, Attacks.between(4, 60));
+        assertEquals(0x1010101010101010L, Attacks.line(60, 12));
+        // Adjacent and unaligned squares
+        assertEquals(0L, Attacks.between(0, 1));
+        assertEquals(0L, Attacks.between(0, 17));
+        assertEquals(0L, Attacks.line(0, 17));
+    }
+}
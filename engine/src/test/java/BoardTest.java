@@ -0,0 +1,195 @@
+import com.nathanholmberg.chess.engine.ai.RandomAI;
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
+import com.nathanholmberg.chess.engine.game.Board;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.pieces.Piece;
+import com.nathanholmberg.chess.engine.pieces.Queen;
+import com.nathanholmberg.chess.engine.types.CastlingRights;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.Position;
+import com.nathanholmberg.chess.engine.utils.FEN;
+import com.nathanholmberg.chess.engine.utils.MoveUtils;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the bitboard representation behind the <code>Board</code> class.
+ *
+ * <p>The board keeps its pieces both as bitboards and as an array of <code>Piece</code> objects.
+ * These tests make sure the two always agree, whether the board is edited square by square
+ * or through moves played in a game, and that <code>makeMove</code> / <code>unmakeMove</code>
+ * leave the board exactly as it was.</p>
+ */
+public class BoardTest {
+    /**
+     * Rebuilds every bitboard from <code>getPieceAt</code> and compares it to the board's own.
+     */
+    private static void assertBitboardsConsistent(Board board) {
+        long occupied = 0L;
+        long[] colors = new long[2];
+        long[][] pieces = new long[2][PieceType.values().length];
+
+        for (int square = 0; square < 64; square++) {
+            Piece piece = board.getPieceAt(new Position(square & 7, square >>> 3));
+            if (piece == null) { continue; }
+            occupied |= 1L << square;
+            colors[piece.getColor().ordinal()] |= 1L << square;
+            pieces[piece.getColor().ordinal()][piece.getType().ordinal()] |= 1L << square;
+        }
+
+        assertEquals(occupied, board.getOccupancy());
+        for (Color color : Color.values()) {
+            assertEquals(colors[color.ordinal()], board.getOccupancy(color));
+            for (PieceType type : PieceType.values()) {
+                assertEquals(pieces[color.ordinal()][type.ordinal()], board.getPieceBitboard(color, type));
+            }
+
+            // King square and piece lists
+            long kings = pieces[color.ordinal()][PieceType.KING.ordinal()];
+            if (Long.bitCount(kings) == 1) {
+                assertEquals(Long.numberOfTrailingZeros(kings), board.getKingSquare(color));
+            }
+            assertEquals(Long.bitCount(colors[color.ordinal()]), board.getPiecePositionsByColor(color).size());
+            int i = 0;
+            for (Position position : board.getPiecePositionsByColor(color)) {
+                assertEquals(color, board.getPieceAt(position).getColor());
+                assertEquals(position, board.getPiecePositionsByColor(color).get(i));
+                assertEquals(board.getPieceAt(position), board.getPiecesByColor(color).get(i++));
+            }
+        }
+    }
+
+    @Test
+    public void setupTest() {
+        Board board = new Board();
+        assertBitboardsConsistent(board);
+
+        assertEquals(0x000000000000FFFFL, board.getOccupancy(Color.WHITE));
+        assertEquals(0xFFFF000000000000L, board.getOccupancy(Color.BLACK));
+        assertEquals(0x000000000000FF00L, board.getPieceBitboard(Color.WHITE, PieceType.PAWN));
+        assertEquals(Position.fromAlgebraic("e1"), board.getKingPosition(Color.WHITE));
+        assertEquals(Position.fromAlgebraic("e8"), board.getKingPosition(Color.BLACK));
+        assertEquals(16, board.getPiecePositionsByColor(Color.BLACK).size());
+    }
+
+    @Test
+    public void setPieceAtTest() {
+        Board board = new Board();
+        Position position = Position.fromAlgebraic("d2");
+
+        // Replace
+        board.setPieceAt(position, new Queen(Color.BLACK));
+        assertBitboardsConsistent(board);
+        assertEquals(PieceType.QUEEN, board.getPieceAt(position).getType());
+
+        // Remove
+        board.setPieceAt(position, null);
+        assertBitboardsConsistent(board);
+        assertNull(board.getPieceAt(position));
+
+        // Clear
+        board.clear();
+        assertBitboardsConsistent(board);
+        assertEquals(0L, board.getOccupancy());
+    }
+
+    @RepeatedTest(5)
+    public void randomGameTest() {
+        ChessGame chessGame = new ChessGame();
+
+        // Play a random game
+        while (chessGame.inPlay()) {
+            chessGame.move(new RandomAI().getMove(chessGame));
+            assertBitboardsConsistent(chessGame.board);
+            assertBitboardsConsistent(chessGame.board.getDeepCopy());
+        }
+    }
+
+    /**
+     * Makes and unmakes every legal move of the position and checks the FEN is unchanged.
+     */
+    private static void assertMakeUnmakeRestores(ChessGame chessGame) {
+        String expectedFEN = FEN.getFEN(chessGame);
+        for (Position initialPosition : chessGame.board.getPiecePositionsByColor(chessGame.getTurn())) {
+            for (Position finalPosition : chessGame.getLegalMoves(initialPosition)) {
+                char promotionPiece = MoveUtils.causesPromotion(new Move(initialPosition, finalPosition, 'Q'), chessGame) ? 'N' : '\0';
+                long undo = chessGame.board.makeMove(new Move(initialPosition, finalPosition, promotionPiece));
+                chessGame.board.unmakeMove(undo);
+
+                assertEquals(expectedFEN, FEN.getFEN(chessGame));
+                assertBitboardsConsistent(chessGame.board);
+            }
+        }
+    }
+
+    @Test
+    public void makeUnmakeSpecialMovesTest() {
+        // Castling both ways, en passant, promotion with and without capture
+        assertMakeUnmakeRestores(FEN.getGame("r3k2r/pppppppp/8/8/8/8/PPPPPPPP/R3K2R w KQkq - 0 1"));
+        assertMakeUnmakeRestores(FEN.getGame("r3k2r/pppppppp/8/8/8/8/PPPPPPPP/R3K2R b KQkq - 0 1"));
+        assertMakeUnmakeRestores(FEN.getGame("r3kb1r/pp2p1pp/3qb3/1PpPP3/4n3/1n1PBPPB/P1Q5/RN2K1NR w KQkq c6 0 16"));
+        assertMakeUnmakeRestores(FEN.getGame("1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1"));
+    }
+
+    @Test
+    public void castlingRightsTest() {
+        Board board = FEN.getGame("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1").board;
+        CastlingRights rights = board.getCastlingRights();
+        assertEquals(CastlingRights.ALL, rights.getBits());
+
+        // Rook takes rook on h8, both king side rights are lost
+        long undo = board.makeMove(new Move(Position.fromAlgebraic("h1"), Position.fromAlgebraic("h8"), '\0'));
+        assertEquals(CastlingRights.WHITE_QUEEN_SIDE | CastlingRights.BLACK_QUEEN_SIDE, rights.getBits());
+        board.unmakeMove(undo);
+        assertEquals(CastlingRights.ALL, rights.getBits());
+
+        // King move loses both
+        undo = board.makeMove(new Move(Position.fromAlgebraic("e1"), Position.fromAlgebraic("d1"), '\0'));
+        assertFalse(rights.isCastlingAllowed(Color.WHITE, true));
+        assertFalse(rights.isCastlingAllowed(Color.WHITE, false));
+        assertTrue(rights.isCastlingAllowed(Color.BLACK, true));
+        board.unmakeMove(undo);
+
+        // Copies are independent and compare by value
+        CastlingRights copy = rights.getDeepCopy();
+        copy.setBlackKingSide(false);
+        assertEquals(CastlingRights.ALL & ~CastlingRights.BLACK_KING_SIDE, copy.getBits());
+        assertEquals(new CastlingRights(), rights);
+    }
+
+    @Test
+    public void isSquareAttackedTest() {
+        Board board = FEN.getGame("4k3/8/3n4/8/1b2P2r/8/8/4K3 w - - 0 1").board;
+
+        // Knight, bishop and rook rays
+        assertTrue(board.isSquareAttacked(Position.fromAlgebraic("e4"), Color.BLACK));
+        assertTrue(board.isSquareAttacked(Position.fromAlgebraic("e1"), Color.BLACK));
+        assertTrue(board.isSquareAttacked(Position.fromAlgebraic("h1"), Color.BLACK));
+        // Blocked by the pawn on e4
+        assertFalse(board.isSquareAttacked(Position.fromAlgebraic("d4"), Color.BLACK));
+        // Pawns attack diagonally forward only
+        assertTrue(board.isSquareAttacked(Position.fromAlgebraic("d5"), Color.WHITE));
+        assertFalse(board.isSquareAttacked(Position.fromAlgebraic("e5"), Color.WHITE));
+        // Kings
+        assertTrue(board.isSquareAttacked(Position.fromAlgebraic("d7"), Color.BLACK));
+        assertTrue(board.isKingInCheck(Color.WHITE));
+        assertFalse(board.isKingInCheck(Color.BLACK));
+    }
+
+    @RepeatedTest(3)
+    public void makeUnmakeRandomGameTest() {
+        ChessGame chessGame = new ChessGame();
+
+        // Play a random game
+        while (chessGame.inPlay()) {
+            assertMakeUnmakeRestores(chessGame);
+            chessGame.move(new RandomAI().getMove(chessGame));
+        }
+    }
+}
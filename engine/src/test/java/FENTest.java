@@ -1,13 +1,22 @@
 import com.nathanholmberg.chess.engine.ai.RandomAI;
 import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.game.Board;
 import com.nathanholmberg.chess.engine.game.ChessGame;
 
 import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.Position;
 import com.nathanholmberg.chess.engine.utils.FEN;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit tests for validating the functionality of the FEN (Forsyth-Edwards Notation) utility.
@@ -22,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
  *   <li>Correct creation of game objects from valid FEN strings.</li>
  *   <li>Detection and handling of illegal or malformed FEN strings.</li>
  *   <li>Accuracy of FEN generation in standard chess positions.</li>
+ *   <li>Parsing into an existing board, and batch validation of many positions.</li>
  * </ul>
  *
  * <p>These tests ensure the robustness of the FEN utility, which
@@ -100,5 +110,55 @@ public class FENTest {
         // Negative full move number
         assertThrows(IllegalNotationException.class, () ->
                 FEN.getGame("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 -5"));
+        // Two white kings
+        assertThrows(IllegalNotationException.class, () ->
+                FEN.getGame("4k3/8/8/8/8/8/8/K3K3 w - - 0 1"));
+        // Trailing field
+        assertThrows(IllegalNotationException.class, () ->
+                FEN.getGame("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 x"));
+    }
+
+    @Test
+    public void parseInPlaceTest() {
+        Board board = new Board();
+        String fen = "r3k2r/8/8/3pP3/8/8/8/R3K2R w KQq d6 7 30";
+
+        // Reuse the same board for several positions
+        FEN.Setup setup = FEN.parse(new StringBuilder(fen), board);
+        assertEquals(Color.WHITE, setup.turn());
+        assertEquals(7, setup.halfMoveClock());
+        assertEquals(30, setup.fullMoveNumber());
+        assertEquals(Position.of(3, 5), board.getEnPassantPosition());
+        assertFalse(board.getCastlingRights().isBlackKingSide());
+
+        StringBuilder written = new StringBuilder("FEN: ");
+        FEN.appendFEN(written, board, setup.turn(), setup.halfMoveClock(), setup.fullMoveNumber());
+        assertEquals("FEN: " + fen, written.toString());
+
+        // The board matches one parsed from scratch
+        FEN.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 0 1", board);
+        assertEquals(new Board().getZobristKey(), board.getZobristKey());
+        assertNull(board.getEnPassantPosition());
+    }
+
+    @Test
+    public void validateAllTest() {
+        List<String> fens = List.of(
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                // EPD, with operations instead of clocks
+                "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - bm O-O; id \"castles\";",
+                // Castling rights without the rook
+                "4k3/8/8/8/8/8/8/R3K3 w KQ - 0 1",
+                // Two kings
+                "4k3/8/8/8/8/8/8/K3K3 w - - 0 1",
+                // Side not to move in check
+                "4k3/8/8/8/8/8/4R3/4K3 w - - 0 1");
+
+        List<String> errors = FEN.validateAll(fens.stream());
+        assertEquals(3, errors.size());
+        assertTrue(errors.get(0).startsWith("'" + fens.get(2) + "'"));
+        assertTrue(errors.get(1).startsWith("'" + fens.get(3) + "'"));
+        assertTrue(errors.get(2).startsWith("'" + fens.get(4) + "'"));
+        assertNull(FEN.validate(fens.get(1)));
     }
 }
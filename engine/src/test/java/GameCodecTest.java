@@ -0,0 +1,85 @@
+import com.nathanholmberg.chess.engine.ai.RandomAI;
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.GameResult;
+import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.utils.FEN;
+import com.nathanholmberg.chess.engine.utils.GameCodec;
+import com.nathanholmberg.chess.engine.utils.MoveUtils;
+import com.nathanholmberg.chess.engine.utils.PGN;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the binary game encoding in <code>GameCodec</code>.
+ *
+ * <p>Games are encoded and decoded again, and must come back with the same moves, position and result.
+ * The encoding of a game from the standard position takes one byte per ply after a short header.</p>
+ */
+public class GameCodecTest {
+    @RepeatedTest(5)
+    public void randomGameTest() {
+        ChessGame chessGame = new ChessGame();
+        while (chessGame.inPlay()) {
+            chessGame.move(new RandomAI().getMove(chessGame));
+        }
+
+        byte[] bytes = GameCodec.encode(chessGame);
+        ChessGame decoded = GameCodec.decode(bytes);
+
+        assertEquals(chessGame.getMoveHistory().getMoves(), decoded.getMoveHistory().getMoves());
+        assertEquals(FEN.getFEN(chessGame), FEN.getFEN(decoded));
+        assertEquals(chessGame.getResult(), decoded.getResult());
+
+        // Header, ply count and one byte per ply
+        int plies = chessGame.getMoveHistory().getSize();
+        assertTrue(bytes.length <= 3 + 2 + plies, bytes.length + " bytes for " + plies + " plies");
+        assertTrue(bytes.length * 4 < PGN.getPGN(chessGame).length());
+    }
+
+    @Test
+    public void startFenAndClocksTest() {
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b KQkq - 3 12";
+        ChessGame chessGame = FEN.getGame(fen);
+        chessGame.move(MoveUtils.fromAlgebraic("O-O", chessGame));
+        chessGame.move(MoveUtils.fromAlgebraic("Bxa6", chessGame));
+        chessGame.winByResign(Color.WHITE);
+
+        // Looking back in the history does not change the encoding
+        chessGame.stepBack();
+        GameCodec.Snapshot snapshot = GameCodec.decodeSnapshot(GameCodec.encode(chessGame, 61_250L, 3_000_000_000L));
+        chessGame.stepFullForward();
+
+        assertEquals(fen, FEN.getFEN(snapshot.chessGame().getInitialGame()));
+        assertEquals(FEN.getFEN(chessGame), FEN.getFEN(snapshot.chessGame()));
+        assertEquals(GameResult.WHITE_WON_BY_RESIGN, snapshot.chessGame().getResult());
+        assertTrue(snapshot.hasClocks());
+        assertEquals(61_250L, snapshot.whiteTime());
+        assertEquals(3_000_000_000L, snapshot.blackTime());
+        assertFalse(GameCodec.decodeSnapshot(GameCodec.encode(chessGame)).hasClocks());
+    }
+
+    @Test
+    public void invalidEncodingTest() {
+        ChessGame chessGame = new ChessGame();
+        chessGame.move(MoveUtils.fromAlgebraic("e4", chessGame));
+        byte[] bytes = GameCodec.encode(chessGame);
+
+        // Truncated, out of range move, unknown version
+        assertThrows(IllegalNotationException.class, () -> GameCodec.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+        byte[] badMove = bytes.clone();
+        badMove[badMove.length - 1] = (byte) 200;
+        assertThrows(IllegalNotationException.class, () -> GameCodec.decode(badMove));
+        byte[] badVersion = bytes.clone();
+        badVersion[0] = 9;
+        assertThrows(IllegalNotationException.class, () -> GameCodec.decode(badVersion));
+    }
+}
@@ -0,0 +1,56 @@
+import com.nathanholmberg.chess.engine.ai.AlphaBetaAI;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.utils.FEN;
+
+/**
+ * A utility for benchmarking how the multi-threaded search scales.
+ *
+ * <p>Searches a few positions to a fixed depth with 1, 2, 4 and 8 threads, each run with a fresh
+ * transposition table, and prints the time to depth, the nodes per second, and the speedup and
+ * efficiency (speedup per thread) against one thread. The depth may be given as the first argument.
+ * Thread counts above the number of available processors are still run but cannot speed anything up.</p>
+ */
+public class LazySMPSpeedTest {
+    private static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N2N2/PP2BPPP/R2QKB1R w KQ - 0 8",
+    };
+    private static final int[] THREADS = {1, 2, 4, 8};
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+
+        // Warm Up
+        for (String fen : POSITIONS) {
+            new AlphaBetaAI(Math.max(1, depth - 2)).search(FEN.getGame(fen));
+        }
+
+        long[] totalTimes = new long[THREADS.length];
+        for (String fen : POSITIONS) {
+            System.out.println(fen);
+            for (int i = 0; i < THREADS.length; i++) {
+                ChessGame chessGame = FEN.getGame(fen);
+                AlphaBetaAI ai = new AlphaBetaAI(depth, Long.MAX_VALUE, Long.MAX_VALUE, THREADS[i]);
+
+                long startTime = System.nanoTime();
+                AlphaBetaAI.SearchResult result = ai.search(chessGame);
+                long time = System.nanoTime() - startTime;
+                totalTimes[i] += time;
+
+                System.out.println("  Threads: " + THREADS[i] + ", time to depth " + result.depth() + " (ms): " + time / 1_000_000
+                        + ", nodes: " + result.nodes() + ", nodes per second: " + result.nodesPerSecond());
+            }
+        }
+
+        // Scaling over all positions
+        System.out.println("Total");
+        for (int i = 0; i < THREADS.length; i++) {
+            double speedup = (double) totalTimes[0] / totalTimes[i];
+            System.out.println("  Threads: " + THREADS[i] + ", time (ms): " + totalTimes[i] / 1_000_000
+                    + ", speedup: " + String.format("%.2f", speedup)
+                    + ", efficiency: " + String.format("%.0f%%", 100 * speedup / THREADS[i]));
+        }
+    }
+}
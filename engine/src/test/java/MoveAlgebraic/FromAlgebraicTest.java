@@ -1,5 +1,6 @@
 package MoveAlgebraic;
 
+import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
 import com.nathanholmberg.chess.engine.game.ChessGame;
 import com.nathanholmberg.chess.engine.types.Move;
 import com.nathanholmberg.chess.engine.types.Position;
@@ -8,6 +9,7 @@ import com.nathanholmberg.chess.engine.utils.MoveUtils;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * This class contains a suite of unit tests to validate the correctness of the
@@ -177,4 +179,30 @@ public class FromAlgebraicTest {
         Move move = new Move(Position.fromAlgebraic("e1"), Position.fromAlgebraic("g1"), '\0');
         assertEquals(move, MoveUtils.fromAlgebraic("O-O#", chessGame));
     }
+
+    @Test
+    public void testTolerantVariants() {
+        ChessGame chessGame = FEN.getGame("r3k3/1P6/8/3p4/4P3/8/8/4K2R w Kq - 0 1");
+        assertEquals(new Move(Position.fromAlgebraic("e4"), Position.fromAlgebraic("d5"), '\0'), MoveUtils.fromAlgebraic("ed5", chessGame));
+        assertEquals(new Move(Position.fromAlgebraic("e4"), Position.fromAlgebraic("d5"), '\0'), MoveUtils.fromAlgebraic("exd5!?", chessGame));
+        assertEquals(new Move(Position.fromAlgebraic("e1"), Position.fromAlgebraic("g1"), '\0'), MoveUtils.fromAlgebraic("0-0", chessGame));
+        assertEquals(new Move(Position.fromAlgebraic("b7"), Position.fromAlgebraic("b8"), 'Q'), MoveUtils.fromAlgebraic("b8Q+!", chessGame));
+        assertEquals(new Move(Position.fromAlgebraic("b7"), Position.fromAlgebraic("a8"), 'N'), MoveUtils.fromAlgebraic("ba8=N", chessGame));
+    }
+
+    @Test
+    public void testErrorIndex() {
+        ChessGame chessGame = new ChessGame();
+        assertErrorIndex(2, "Nf9", chessGame);
+        assertErrorIndex(1, "Nxf3", chessGame);
+        assertErrorIndex(2, "e4+", chessGame);
+        assertErrorIndex(3, "Nf3 ", chessGame);
+        assertErrorIndex(0, "e5", chessGame);
+        assertErrorIndex(0, "O-O", chessGame);
+    }
+
+    private static void assertErrorIndex(int expected, String notation, ChessGame chessGame) {
+        IllegalNotationException e = assertThrows(IllegalNotationException.class, () -> MoveUtils.fromAlgebraic(notation, chessGame));
+        assertEquals(expected, e.getErrorIndex(), e.getMessage());
+    }
 }
@@ -82,6 +82,11 @@ public class ToAlgebraicTest {
         move2 = new Move(Position.fromAlgebraic("e8"), Position.fromAlgebraic("c8"), '\0');
         assertEquals("O-O", MoveUtils.toAlgebraic(move1, chessGame));
         assertEquals("O-O-O", MoveUtils.toAlgebraic(move2, chessGame));
+
+        // Castling into check
+        chessGame = FEN.getGame("5k2/8/8/8/8/8/8/4K2R w K - 0 1");
+        move1 = new Move(Position.fromAlgebraic("e1"), Position.fromAlgebraic("g1"), '\0');
+        assertEquals("O-O+", MoveUtils.toAlgebraic(move1, chessGame));
     }
 
     @Test
@@ -124,6 +129,15 @@ public class ToAlgebraicTest {
         move2 = new Move(Position.fromAlgebraic("c3"), Position.fromAlgebraic("e2"), '\0');
         assertEquals("Nge2", MoveUtils.toAlgebraic(move1, chessGame));
         assertEquals("Nce2", MoveUtils.toAlgebraic(move2, chessGame));
+
+        // Rank When the File is Shared, Square When Both Are
+        chessGame = FEN.getGame("7k/8/8/8/8/1N3N2/8/1N2K3 w - - 0 1");
+        move1 = new Move(Position.fromAlgebraic("b1"), Position.fromAlgebraic("d2"), '\0');
+        move2 = new Move(Position.fromAlgebraic("b3"), Position.fromAlgebraic("d2"), '\0');
+        move3 = new Move(Position.fromAlgebraic("f3"), Position.fromAlgebraic("d2"), '\0');
+        assertEquals("N1d2", MoveUtils.toAlgebraic(move1, chessGame));
+        assertEquals("Nb3d2", MoveUtils.toAlgebraic(move2, chessGame));
+        assertEquals("Nfd2", MoveUtils.toAlgebraic(move3, chessGame));
     }
 
     @Test
@@ -1,12 +1,19 @@
 package MoveAlgebraic;
 
 import com.nathanholmberg.chess.engine.ai.RandomAI;
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.game.Board;
 import com.nathanholmberg.chess.engine.game.ChessGame;
 import com.nathanholmberg.chess.engine.types.Move;
 import com.nathanholmberg.chess.engine.utils.FEN;
 import com.nathanholmberg.chess.engine.utils.MoveUtils;
+import com.nathanholmberg.chess.engine.utils.SAN;
 
 import org.junit.jupiter.api.RepeatedTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -17,6 +24,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
  * 1. A move can be accurately converted to algebraic notation and back to the original `Move` object.
  * 2. The reconstructed `Move` is identical to the original `Move` and correctly applicable within the game's context.</p>
  *
+ * A second test renders a random game with <code>SAN.getSANList</code> in one pass and expects the same
+ * notation as converting each move on its own.
+ *
  * The test also confirms that the game's FEN (Forsyth-Edwards Notation) remains valid after reconstructing and applying each move.
  * It is repeated multiple times to ensure robustness across various random game scenarios.
  */
@@ -39,4 +49,20 @@ public class ToFromAlgebraicTest {
             chessGame.move(move);
         }
     }
+
+    @RepeatedTest(5)
+    public void sanListTest() {
+        ChessGame chessGame = new ChessGame();
+        List<String> expected = new ArrayList<>();
+
+        // Play random game, one move at a time
+        while (chessGame.inPlay()) {
+            Move move = new RandomAI().getMove(chessGame);
+            expected.add(MoveUtils.toAlgebraic(move, chessGame));
+            chessGame.move(move);
+        }
+
+        // The whole game in one pass
+        assertEquals(expected, SAN.getSANList(new Board(), Color.WHITE, chessGame.getMoveHistory().getMoves()));
+    }
 }
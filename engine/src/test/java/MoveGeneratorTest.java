@@ -0,0 +1,117 @@
+import com.nathanholmberg.chess.engine.ai.RandomAI;
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.enums.PieceType;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.pieces.Piece;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.MoveList;
+import com.nathanholmberg.chess.engine.types.PackedMove;
+import com.nathanholmberg.chess.engine.types.Position;
+import com.nathanholmberg.chess.engine.utils.FEN;
+import com.nathanholmberg.chess.engine.utils.MoveUtils;
+import com.nathanholmberg.chess.engine.utils.PieceUtils;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the legal move generator behind <code>ChessGame.generateLegalMoves()</code>.
+ *
+ * <p>The generator works from bitboards with check and pin masks, while the pieces validate one move
+ * at a time through their own rules. These tests brute-force every initial and final square with
+ * <code>Piece.isMoveValid</code> and <code>ChessGame.isMoveSafe</code> and expect exactly the generated set.</p>
+ */
+public class MoveGeneratorTest {
+    /**
+     * Collects every legal move by trying all 64 x 64 squares (and each promotion piece).
+     */
+    private static Set<Move> getBruteForceMoves(ChessGame chessGame) {
+        Set<Move> moves = new HashSet<>();
+        for (Position initialPosition : chessGame.board.getPiecePositionsByColor(chessGame.getTurn())) {
+            for (int square = 0; square < 64; square++) {
+                Position finalPosition = new Position(square & 7, square >>> 3);
+                Move move = new Move(initialPosition, finalPosition, '\0');
+                if (!MoveUtils.causesPromotion(move, chessGame)) {
+                    if (isMoveLegalByRules(chessGame, move)) { moves.add(move); }
+                    continue;
+                }
+                for (char promotionPiece : "QRBN".toCharArray()) {
+                    Move promotion = new Move(initialPosition, finalPosition, promotionPiece);
+                    if (isMoveLegalByRules(chessGame, promotion)) { moves.add(promotion); }
+                }
+            }
+        }
+        return moves;
+    }
+
+    // The game answers legality from the generated moves, so check the piece's rules directly
+    private static boolean isMoveLegalByRules(ChessGame chessGame, Move move) {
+        Piece piece = chessGame.board.getPieceAt(move.initialPosition());
+        return piece.isMoveValid(move, chessGame.board) && chessGame.isMoveSafe(move);
+    }
+
+    private static void assertGeneratorMatches(ChessGame chessGame) {
+        Set<Move> generated = new HashSet<>(chessGame.generateLegalMoves());
+        assertEquals(chessGame.generateLegalMoves().size(), generated.size(), "Duplicate moves in " + FEN.getFEN(chessGame));
+        assertEquals(getBruteForceMoves(chessGame), generated, FEN.getFEN(chessGame));
+
+        // The packed flags must agree with what the board sees for the same move
+        MoveList packedMoves = new MoveList();
+        chessGame.generateLegalMoves(packedMoves);
+        for (int i = 0; i < packedMoves.size(); i++) {
+            int packedMove = packedMoves.get(i);
+            assertEquals(packedMove, PackedMove.fromMove(PackedMove.toMove(packedMove), chessGame.board), PackedMove.toString(packedMove));
+        }
+    }
+
+    @Test
+    public void specialPositionsTest() {
+        // Castling, with and without attacked squares
+        assertGeneratorMatches(FEN.getGame("r3k2r/pppppppp/8/8/8/8/PPPPPPPP/R3K2R w KQkq - 0 1"));
+        assertGeneratorMatches(FEN.getGame("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1"));
+        assertGeneratorMatches(FEN.getGame("r3k2r/8/8/8/8/8/5r2/R3K2R w KQkq - 0 1"));
+        assertGeneratorMatches(FEN.getGame("1r2k2r/8/8/8/8/8/8/R3K2R b KQk - 0 1"));
+        // Pins, checks and double checks
+        assertGeneratorMatches(FEN.getGame("4k3/4r3/8/8/8/8/4B3/4K3 w - - 0 1"));
+        assertGeneratorMatches(FEN.getGame("4k3/8/8/8/b7/8/2N5/4K3 w - - 0 1"));
+        assertGeneratorMatches(FEN.getGame("4k3/8/8/8/8/5n2/8/r3K3 w - - 0 1"));
+        // En passant, including the horizontal pin
+        assertGeneratorMatches(FEN.getGame("r3kb1r/pp2p1pp/3qb3/1PpPP3/4n3/1n1PBPPB/P1Q5/RN2K1NR w KQkq c6 0 16"));
+        assertGeneratorMatches(FEN.getGame("8/8/8/K2pP2r/8/8/8/7k w - d6 0 1"));
+        assertGeneratorMatches(FEN.getGame("8/8/8/3pP3/8/8/8/k6K w - d6 0 1"));
+        // Promotions
+        assertGeneratorMatches(FEN.getGame("1r2k3/P7/8/8/8/8/6p1/4K3 w - - 0 1"));
+        assertGeneratorMatches(FEN.getGame("1r2k3/P7/8/8/8/8/6p1/4K3 b - - 0 1"));
+        // Kiwipete
+        assertGeneratorMatches(FEN.getGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"));
+    }
+
+    @Test
+    public void cachedMovesFollowBoardTest() {
+        ChessGame chessGame = FEN.getGame("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        assertGeneratorMatches(chessGame);
+
+        // Pieces placed or removed straight on the board change the legal moves too
+        chessGame.board.setPieceAt(Position.of(4, 1), PieceUtils.getPiece(PieceType.ROOK, Color.BLACK));
+        assertGeneratorMatches(chessGame);
+        chessGame.board.setPieceAt(Position.of(0, 0), null);
+        assertGeneratorMatches(chessGame);
+        assertEquals(3, chessGame.getLegalMoves(Position.of(4, 0)).size());
+    }
+
+    @RepeatedTest(5)
+    public void randomGameTest() {
+        ChessGame chessGame = new ChessGame();
+
+        // Play a random game
+        while (chessGame.inPlay()) {
+            assertGeneratorMatches(chessGame);
+            chessGame.move(new RandomAI().getMove(chessGame));
+        }
+    }
+}
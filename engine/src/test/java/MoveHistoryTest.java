@@ -0,0 +1,132 @@
+import com.nathanholmberg.chess.engine.ai.RandomAI;
+import com.nathanholmberg.chess.engine.enums.Color;
+import com.nathanholmberg.chess.engine.game.Board;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.game.MoveHistory;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.Position;
+import com.nathanholmberg.chess.engine.utils.FEN;
+import com.nathanholmberg.chess.engine.utils.MoveUtils;
+import com.nathanholmberg.chess.engine.utils.SAN;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for walking through a game's history with <code>ChessGame.loadGameStateAt</code>.
+ *
+ * <p>The FEN after every move is recorded while playing, then the game is moved to random points
+ * in its history and must match the recorded FEN each time, including the clocks.</p>
+ *
+ * <p>The SAN and movetext recorded with each move are checked against a fresh rendering of the game,
+ * and against branching off part way through the history.</p>
+ */
+public class MoveHistoryTest {
+    private static List<String> playRandomGame(ChessGame chessGame) {
+        List<String> fens = new ArrayList<>();
+        fens.add(FEN.getFEN(chessGame));
+        while (chessGame.inPlay()) {
+            chessGame.move(new RandomAI().getMove(chessGame));
+            fens.add(FEN.getFEN(chessGame));
+        }
+        return fens;
+    }
+
+    @RepeatedTest(5)
+    public void randomNavigationTest() {
+        ChessGame chessGame = new ChessGame();
+        List<String> fens = playRandomGame(chessGame);
+        Random random = new Random();
+
+        // Jump around
+        for (int i = 0; i < 50; i++) {
+            int moveIndex = random.nextInt(fens.size()) - 1;
+            chessGame.loadGameStateAt(moveIndex);
+            assertEquals(moveIndex, chessGame.getMoveHistory().getCurrentMoveIndex());
+            assertEquals(fens.get(moveIndex + 1), FEN.getFEN(chessGame));
+        }
+
+        // Step through
+        chessGame.stepFullBack();
+        assertEquals(fens.get(0), FEN.getFEN(chessGame));
+        for (int i = 1; i < fens.size(); i++) {
+            chessGame.stepForward();
+            assertEquals(fens.get(i), FEN.getFEN(chessGame));
+        }
+        for (int i = fens.size() - 2; i >= 0; i--) {
+            chessGame.stepBack();
+            assertEquals(fens.get(i), FEN.getFEN(chessGame));
+        }
+        chessGame.stepFullForward();
+        assertEquals(fens.get(fens.size() - 1), FEN.getFEN(chessGame));
+    }
+
+    @Test
+    public void customStartPositionTest() {
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b KQkq - 3 12";
+        ChessGame chessGame = FEN.getGame(fen);
+        chessGame.move(MoveUtils.fromAlgebraic("O-O", chessGame));
+        chessGame.move(MoveUtils.fromAlgebraic("O-O", chessGame));
+        String last = FEN.getFEN(chessGame);
+
+        // Back to the FEN the game started from, not the standard start
+        chessGame.stepFullBack();
+        assertEquals(fen, FEN.getFEN(chessGame));
+        chessGame.stepFullForward();
+        assertEquals(last, FEN.getFEN(chessGame));
+
+        // Moves keep working at the end of the history
+        chessGame.move(MoveUtils.fromAlgebraic("Kh8", chessGame));
+        assertEquals(3, chessGame.getMoveHistory().getSize());
+    }
+
+    @Test
+    public void movetextTest() {
+        ChessGame chessGame = new ChessGame();
+        for (String san : new String[]{"e4", "e5", "Qh5", "Nc6", "Bc4", "Nf6", "Qxf7#"}) {
+            chessGame.move(MoveUtils.fromAlgebraic(san, chessGame));
+        }
+        MoveHistory moveHistory = chessGame.getMoveHistory();
+        assertEquals("1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6 4. Qxf7#", moveHistory.getMovetext());
+        assertEquals("Qxf7#", moveHistory.getSAN(6));
+
+        // Branching off drops the later moves from the text
+        moveHistory.setCurrentMoveIndex(2);
+        moveHistory.addMove(Move.of(Position.fromAlgebraic("g8"), Position.fromAlgebraic("f6")), "Nf6", Color.BLACK, 0L, 0, 2);
+        assertEquals("1. e4 e5 2. Qh5 Nf6", moveHistory.getMovetext());
+        assertEquals(4, moveHistory.getSANs().size());
+        moveHistory.setCurrentMoveIndex(-1);
+        moveHistory.addMove(Move.of(Position.fromAlgebraic("d2"), Position.fromAlgebraic("d4")), "d4", Color.WHITE, 0L, 0, 1);
+        assertEquals("1. d4", moveHistory.getMovetext());
+
+        // A game starting with black numbers its first move
+        chessGame = FEN.getGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b KQkq - 3 12");
+        chessGame.move(MoveUtils.fromAlgebraic("O-O", chessGame));
+        chessGame.move(MoveUtils.fromAlgebraic("O-O", chessGame));
+        assertEquals("12... O-O 13. O-O", chessGame.getMoveHistory().getMovetext());
+    }
+
+    @RepeatedTest(5)
+    public void movetextMatchesReplayTest() {
+        ChessGame chessGame = new ChessGame();
+        playRandomGame(chessGame);
+
+        // The recorded SAN must match rendering the whole game again
+        MoveHistory moveHistory = chessGame.getMoveHistory();
+        assertEquals(SAN.getSANList(new Board(), Color.WHITE, moveHistory.getMoves()), moveHistory.getSANs());
+    }
+
+    @Test
+    public void invalidIndexTest() {
+        ChessGame chessGame = new ChessGame();
+        assertThrows(IllegalArgumentException.class, () -> chessGame.loadGameStateAt(0));
+        assertThrows(IllegalArgumentException.class, () -> chessGame.loadGameStateAt(-2));
+    }
+}
@@ -0,0 +1,116 @@
+import com.nathanholmberg.chess.engine.ai.AlphaBetaAI;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.search.MoveOrdering;
+import com.nathanholmberg.chess.engine.types.MoveList;
+import com.nathanholmberg.chess.engine.types.PackedMove;
+import com.nathanholmberg.chess.engine.utils.FEN;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for move ordering.
+ *
+ * <p>These tests check that the best guess comes first and captures follow by MVV-LVA, that killers,
+ * countermoves and history move quiet moves up after a cutoff, that a new search forgets the killers
+ * but not the history, and that the search needs fewer nodes with the ordering than without.</p>
+ */
+public class MoveOrderingTest {
+    // Queen on d5 capturable by the e4 pawn and the d1 queen
+    private static final String CAPTURES = "4k3/8/8/3q4/4P3/8/8/3QK3 w - - 0 1";
+    private static final int PAWN_TAKES_QUEEN = PackedMove.encode(28, 35, PackedMove.CAPTURE);
+    private static final int QUEEN_TAKES_QUEEN = PackedMove.encode(3, 35, PackedMove.CAPTURE);
+    private static final int KING_E2 = PackedMove.encode(4, 12, PackedMove.QUIET);
+    private static final int KING_F1 = PackedMove.encode(4, 5, PackedMove.QUIET);
+    private static final int PAWN_E5 = PackedMove.encode(28, 36, PackedMove.QUIET);
+
+    private static MoveList order(MoveOrdering ordering, ChessGame chessGame, int ply, int bestGuess, int previousMove) {
+        MoveList moves = new MoveList();
+        chessGame.generateLegalMoves(moves);
+        ordering.scoreMoves(chessGame.board, chessGame.getTurn(), moves, ply, bestGuess, previousMove);
+        for (int i = 0; i < moves.size(); i++) {
+            ordering.nextMove(moves, ply, i);
+        }
+        return moves;
+    }
+
+    @Test
+    public void capturesTest() {
+        ChessGame chessGame = FEN.getGame(CAPTURES);
+        MoveOrdering ordering = new MoveOrdering(8, MoveOrdering.ALL);
+
+        MoveList moves = order(ordering, chessGame, 0, PackedMove.NONE, PackedMove.NONE);
+        assertEquals(PAWN_TAKES_QUEEN, moves.get(0));
+        assertEquals(QUEEN_TAKES_QUEEN, moves.get(1));
+        assertTrue(!PackedMove.isCapture(moves.get(2)));
+
+        // The best guess goes before any capture
+        moves = order(ordering, chessGame, 0, KING_E2, PackedMove.NONE);
+        assertEquals(KING_E2, moves.get(0));
+        assertEquals(PAWN_TAKES_QUEEN, moves.get(1));
+    }
+
+    @Test
+    public void cutoffTest() {
+        ChessGame chessGame = FEN.getGame(CAPTURES);
+        MoveOrdering ordering = new MoveOrdering(8, MoveOrdering.ALL);
+        int previousMove = PackedMove.encode(60, 59, PackedMove.QUIET);
+
+        // Ke2 cuts off at ply 3 after e5 was tried
+        MoveList moves = new MoveList();
+        moves.add(PAWN_E5);
+        moves.add(KING_E2);
+        ordering.recordCutoff(chessGame.getTurn(), moves, 1, 3, 4, previousMove);
+
+        // A killer at the same ply, right after the captures
+        moves = order(ordering, chessGame, 3, PackedMove.NONE, PackedMove.NONE);
+        assertEquals(KING_E2, moves.get(2));
+
+        // The countermove at another ply after the same move
+        ordering.recordCutoff(chessGame.getTurn(), singleMove(KING_F1), 0, 1, 2, previousMove);
+        moves = order(ordering, chessGame, 5, PackedMove.NONE, previousMove);
+        assertEquals(KING_F1, moves.get(2));
+
+        // Only history is left after a new search, and e5 is now last
+        ordering.newSearch();
+        moves = order(ordering, chessGame, 3, PackedMove.NONE, previousMove);
+        assertEquals(KING_E2, moves.get(2));
+        assertEquals(KING_F1, moves.get(3));
+        assertEquals(PAWN_E5, moves.get(moves.size() - 1));
+    }
+
+    @Test
+    public void disabledTest() {
+        ChessGame chessGame = FEN.getGame(CAPTURES);
+        MoveOrdering ordering = new MoveOrdering(8, 0);
+        ordering.recordCutoff(chessGame.getTurn(), singleMove(KING_E2), 0, 0, 4, PackedMove.NONE);
+
+        // Moves stay in the order generated, apart from the best guess
+        MoveList generated = new MoveList();
+        chessGame.generateLegalMoves(generated);
+        MoveList moves = order(ordering, chessGame, 0, PackedMove.NONE, PackedMove.NONE);
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(generated.get(i), moves.get(i));
+        }
+        moves = order(ordering, chessGame, 0, KING_F1, PackedMove.NONE);
+        assertEquals(KING_F1, moves.get(0));
+    }
+
+    @Test
+    public void searchTest() {
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        AlphaBetaAI unordered = new AlphaBetaAI(4);
+        unordered.setMoveOrdering(0);
+        long unorderedNodes = unordered.search(FEN.getGame(fen)).nodes();
+        long orderedNodes = new AlphaBetaAI(4).search(FEN.getGame(fen)).nodes();
+
+        assertTrue(orderedNodes < unorderedNodes, orderedNodes + " nodes with ordering, " + unorderedNodes + " without");
+    }
+
+    private static MoveList singleMove(int move) {
+        MoveList moves = new MoveList();
+        moves.add(move);
+        return moves;
+    }
+}
@@ -0,0 +1,111 @@
+import com.nathanholmberg.chess.engine.ai.RandomAI;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.tools.PGNImport;
+import com.nathanholmberg.chess.engine.utils.PGN;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the parallel PGN importer.
+ *
+ * <p>Writes a file of random games, with a preamble, a game without an Event tag and one illegal game,
+ * imports it on a small pool and expects every game back in file order with the right validity. Games
+ * that cannot be read are reported, and the games after them in the same slice are still imported.</p>
+ */
+public class PGNImportTest {
+    @Test
+    public void importInOrderTest() throws IOException {
+        // Write the games
+        List<String> expected = new ArrayList<>();
+        StringBuilder pgn = new StringBuilder("; A database preamble\n\n");
+        for (int i = 0; i < 300; i++) {
+            ChessGame chessGame = new ChessGame();
+            for (int ply = 0; ply < 40 && chessGame.inPlay(); ply++) {
+                chessGame.move(new RandomAI().getMove(chessGame));
+            }
+            expected.add(PGN.getPGN(chessGame));
+            if (i != 150) {
+                pgn.append("[Event \"Game ").append(i).append("\"]\n");
+            }
+            pgn.append("[Round \"").append(i).append("\"]\n\n").append(expected.get(i)).append(chessGame.inPlay() ? " *\n\n" : "\n\n");
+        }
+        pgn.append("[Event \"Illegal\"]\n\n1. e4 e4 *\n");
+
+        Path path = Files.createTempFile("import", ".pgn");
+        try {
+            Files.writeString(path, pgn);
+
+            // Import
+            List<PGNImport.Result> results = new ArrayList<>();
+            long games;
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                games = PGNImport.importFile(path, results::add, pool);
+            } finally {
+                pool.shutdown();
+            }
+
+            // Every game, in order
+            assertEquals(301, games);
+            for (int i = 0; i < 300; i++) {
+                PGNImport.Result result = results.get(i);
+                assertEquals(i, result.index());
+                assertTrue(result.isValid(), result.error());
+                assertEquals(String.valueOf(i), result.game().tags().get("Round"));
+                assertEquals(expected.get(i), PGN.getPGN(result.chessGame()));
+            }
+
+            // The illegal game
+            PGNImport.Result illegal = results.get(300);
+            assertNull(illegal.chessGame());
+            assertEquals("Illegal", illegal.game().tags().get("Event"));
+            assertTrue(illegal.error().contains("e4"), illegal.error());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void malformedTest() throws IOException {
+        // Each broken game is followed by games without an Event tag, in the same slice
+        String pgn = "[Event \"Unterminated\"]\n\n1. e4 ( e5\n\n"
+                + "[Round \"1\"]\n\n1. e4 e5 *\n\n"
+                + "[Round \"2\"]\n\n1. d4 d5 *\n\n"
+                + "[Event \"Unexpected\"]\n\n1. e4 ) e5 *\n\n"
+                + "[Round \"3\"]\n\n1. c4 *\n";
+
+        Path path = Files.createTempFile("import", ".pgn");
+        try {
+            Files.writeString(path, pgn);
+            List<PGNImport.Result> results = new ArrayList<>();
+            long games = PGNImport.importFile(path, results::add);
+
+            assertEquals(5, games);
+            assertEquals(5, results.size());
+            for (int i : new int[] {0, 3}) {
+                assertNull(results.get(i).game());
+                assertTrue(results.get(i).error().startsWith("Illegal PGN"), results.get(i).error());
+            }
+            assertTrue(results.get(0).error().contains("unterminated variation"), results.get(0).error());
+            assertTrue(results.get(3).error().contains("')'"), results.get(3).error());
+            String[] rounds = {null, "1", "2", null, "3"};
+            for (int i : new int[] {1, 2, 4}) {
+                assertTrue(results.get(i).isValid(), results.get(i).error());
+                assertEquals(rounds[i], results.get(i).game().tags().get("Round"));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+import com.nathanholmberg.chess.engine.ai.RandomAI;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.utils.PGN;
+import com.nathanholmberg.chess.engine.utils.PGNReader;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A utility for benchmarking the streaming PGN reader.
+ *
+ * <p>Reads the PGN file given as the first argument, or writes a temporary file of random games with
+ * tags, comments, NAGs and variations when none is given. The file is read twice: once only splitting
+ * it into games, and once also playing every game. Games per second, megabytes per second and the
+ * heap in use afterwards are printed for each pass.</p>
+ */
+public class PGNReaderSpeedTest {
+    private static final int DISTINCT_GAMES = 200;
+    private static final int COPIES = 50;
+
+    public static void main(String[] args) throws IOException {
+        // Setup File
+        Path path;
+        boolean temporary = args.length == 0;
+        if (temporary) {
+            path = Files.createTempFile("games", ".pgn");
+            writeRandomGames(path);
+        } else {
+            path = Path.of(args[0]);
+        }
+        double megabytes = Files.size(path) / (1024.0 * 1024.0);
+        System.out.println("File: " + path + " (" + String.format("%.1f", megabytes) + " MB)");
+
+        try {
+            // Warm Up
+            readAll(path, false);
+
+            run("Read only", path, false, megabytes);
+            run("Read and play", path, true, megabytes);
+        } finally {
+            if (temporary) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static void run(String name, Path path, boolean play, double megabytes) throws IOException {
+        // Suggest garbage collection
+        System.gc();
+        try { Thread.sleep(100); } catch (InterruptedException ignored) { }
+
+        long startTime = System.nanoTime();
+        long games = readAll(path, play);
+        long endTime = System.nanoTime();
+        double seconds = (endTime - startTime) / 1_000_000_000.0;
+
+        Runtime runtime = Runtime.getRuntime();
+        long usedMemory = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        System.out.println(name + ": " + games + " games in " + String.format("%.2f", seconds) + " s, "
+                + String.format("%.0f", games / seconds) + " games/s, "
+                + String.format("%.1f", megabytes / seconds) + " MB/s, heap in use " + usedMemory + " MB");
+    }
+
+    private static long readAll(Path path, boolean play) throws IOException {
+        long games = 0;
+        try (PGNReader reader = new PGNReader(FileChannel.open(path, StandardOpenOption.READ))) {
+            for (PGNReader.Game game = reader.readGame(); game != null; game = reader.readGame()) {
+                if (play) {
+                    PGN.playGame(game);
+                }
+                games++;
+            }
+        }
+        return games;
+    }
+
+    private static void writeRandomGames(Path path) throws IOException {
+        // Random games, dressed up with the parts the reader skips
+        String[] games = new String[DISTINCT_GAMES];
+        for (int i = 0; i < games.length; i++) {
+            ChessGame chessGame = new ChessGame();
+            while (chessGame.inPlay()) {
+                chessGame.move(new RandomAI().getMove(chessGame));
+            }
+            String movetext = PGN.getPGN(chessGame);
+            int split = movetext.indexOf(" 3. ");
+            if (split > 0) {
+                movetext = movetext.substring(0, split) + " $1 {A comment} (2... a6 3. a3 (3. h3) h6) ; note\n" + movetext.substring(split + 1);
+            }
+            games[i] = "[Event \"Random " + i + "\"]\n[Site \"Local\"]\n[White \"RandomAI\"]\n[Black \"RandomAI\"]\n"
+                    + "[Result \"" + chessGame.getResult().getScore() + "\"]\n\n" + movetext + "\n\n";
+        }
+
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int copy = 0; copy < COPIES; copy++) {
+                for (String game : games) {
+                    writer.write(game);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import com.nathanholmberg.chess.engine.ai.RandomAI;
+import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.utils.FEN;
+import com.nathanholmberg.chess.engine.utils.PGN;
+import com.nathanholmberg.chess.engine.utils.PGNReader;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for reading several games in a row with <code>PGNReader</code>.
+ *
+ * <p>The games mix tag pairs, both kinds of comment, escape lines, NAGs, annotations and nested
+ * variations, and only the tags and main line moves must come out. After a game that is not well-formed,
+ * reading goes on from the next tag pair.</p>
+ */
+public class PGNReaderTest {
+    private static final String GAMES = """
+            % An escape line, skipped
+            [Event "Casual Game"]
+            [White "Anderssen, \\"The\\" Adolf"]
+            [Black "Kieseritzky"]
+            [Result "1-0"]
+
+            1. e4 e5 {Open game, a
+            comment over two lines} 2. f4 $1 exf4 3. Bc4 Qh4+ (3... Nf6 4. Nc3 (4. e5 d5) c6) 4. Kf1!? b5 ; rest of line
+            5. Bxb5 1-0
+
+            [Event "No Result"]
+            [SetUp "1"]
+            [FEN "4k3/8/8/8/8/8/8/4K2R w K - 0 1"]
+
+            1.O-O Kd7 2...
+            [Event "Unfinished"]
+            *
+            """;
+
+    @Test
+    public void readGamesTest() throws IOException {
+        try (PGNReader reader = new PGNReader(new StringReader(GAMES))) {
+            // Tags, comments, NAGs and variations
+            PGNReader.Game game = reader.readGame();
+            assertEquals("Anderssen, \"The\" Adolf", game.tags().get("White"));
+            assertEquals(4, game.tags().size());
+            assertEquals(List.of("e4", "e5", "f4", "exf4", "Bc4", "Qh4+", "Kf1!?", "b5", "Bxb5"), game.moves());
+            assertEquals("1-0", game.result());
+            assertEquals(9, PGN.playGame(game).getMoveHistory().getSize());
+
+            // A missing result ends at the next tag, and a FEN tag sets the start
+            game = reader.readGame();
+            assertEquals(List.of("O-O", "Kd7"), game.moves());
+            assertNull(game.result());
+            ChessGame chessGame = PGN.playGame(game);
+            assertEquals("8/3k4/8/8/8/8/8/5RK1 w - - 2 2", FEN.getFEN(chessGame));
+
+            // Tags only
+            game = reader.readGame();
+            assertEquals("Unfinished", game.tags().get("Event"));
+            assertEquals("*", game.result());
+
+            assertNull(reader.readGame());
+        }
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        // Several random games in one stream
+        StringBuilder pgn = new StringBuilder();
+        String[] expected = new String[5];
+        for (int i = 0; i < expected.length; i++) {
+            ChessGame chessGame = new ChessGame();
+            while (chessGame.inPlay()) {
+                chessGame.move(new RandomAI().getMove(chessGame));
+            }
+            expected[i] = PGN.getPGN(chessGame);
+            pgn.append("[Round \"").append(i + 1).append("\"]\n\n").append(expected[i]).append("\n\n");
+        }
+
+        try (PGNReader reader = new PGNReader(new StringReader(pgn.toString()))) {
+            for (String game : expected) {
+                assertEquals(game, PGN.getPGN(PGN.playGame(reader.readGame())));
+            }
+            assertNull(reader.readGame());
+        }
+    }
+
+    @Test
+    public void malformedTest() {
+        assertThrows(IllegalNotationException.class, () -> new PGNReader(new StringReader("1. e4 {never closed")).readGame());
+        assertThrows(IllegalNotationException.class, () -> new PGNReader(new StringReader("1. e4 (1. d4 e5")).readGame());
+        assertThrows(IllegalNotationException.class, () -> new PGNReader(new StringReader("[Event \"Open]\n1. e4")).readGame());
+        assertThrows(IllegalNotationException.class, () -> new PGNReader(new StringReader("1. e4 ) e5")).readGame());
+    }
+
+    @Test
+    public void recoverTest() throws IOException {
+        // Read in place from a buffer, going on after each game that is not well-formed
+        String text = "[Event \"A\"]\n1. e4 ) e5 *\n[Event \"B\"]\n1. d4 *\n[Event \"C\"]\n1. c4 (1... c5\n[Event \"D\"]\n1. Nf3 *\n";
+        PGNReader reader = new PGNReader(CharBuffer.wrap(text.toCharArray()));
+        assertThrows(IllegalNotationException.class, reader::readGame);
+        reader.skipToNextTag();
+        assertEquals("B", reader.readGame().tags().get("Event"));
+        assertThrows(IllegalNotationException.class, reader::readGame);
+        reader.skipToNextTag();
+        PGNReader.Game game = reader.readGame();
+        assertEquals("D", game.tags().get("Event"));
+        assertEquals(List.of("Nf3"), game.moves());
+        assertNull(reader.readGame());
+    }
+}
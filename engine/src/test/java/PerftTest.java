@@ -0,0 +1,90 @@
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.search.TranspositionTable;
+import com.nathanholmberg.chess.engine.tools.Perft;
+import com.nathanholmberg.chess.engine.utils.FEN;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Perft node counts for the standard reference positions.
+ *
+ * <p>The expected counts are the published ones for the initial position, Kiwipete and positions 3 to 6
+ * from the Chess Programming Wiki. Together they cover castling, en passant, promotions, pins and checks,
+ * so any change that breaks move generation or make/unmake should show up here.</p>
+ */
+public class PerftTest {
+    private static final String INITIAL = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+    private static final String POSITION_6 = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+    private static void assertPerft(String fen, long... expected) {
+        ChessGame chessGame = FEN.getGame(fen);
+        for (int depth = 1; depth <= expected.length; depth++) {
+            assertEquals(expected[depth - 1], Perft.perft(chessGame, depth), fen + " at depth " + depth);
+        }
+        // The board is left as it was
+        assertEquals(fen, FEN.getFEN(chessGame));
+    }
+
+    @Test
+    public void initialPositionTest() {
+        assertPerft(INITIAL, 20, 400, 8902, 197281);
+    }
+
+    @Test
+    public void kiwipeteTest() {
+        assertPerft(KIWIPETE, 48, 2039, 97862);
+    }
+
+    @Test
+    public void position3Test() {
+        assertPerft(POSITION_3, 14, 191, 2812, 43238, 674624);
+    }
+
+    @Test
+    public void position4Test() {
+        assertPerft(POSITION_4, 6, 264, 9467, 422333);
+    }
+
+    @Test
+    public void position5Test() {
+        assertPerft(POSITION_5, 44, 1486, 62379);
+    }
+
+    @Test
+    public void position6Test() {
+        assertPerft(POSITION_6, 46, 2079, 89890);
+    }
+
+    @Test
+    public void divideTest() {
+        Map<String, Long> divide = Perft.divide(FEN.getGame(KIWIPETE), 3);
+        assertEquals(48, divide.size());
+        assertEquals(97862, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(2059, divide.get("e1g1"));
+    }
+
+    @Test
+    public void parallelTest() {
+        assertEquals(197281, Perft.perftParallel(FEN.getGame(INITIAL), 4));
+        assertEquals(97862, Perft.perftParallel(FEN.getGame(KIWIPETE), 3));
+        assertEquals(43238, Perft.perftParallel(FEN.getGame(POSITION_3), 4));
+    }
+
+    @Test
+    public void hashTest() {
+        // A table small enough that counts get replaced
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(4085603, Perft.perft(FEN.getGame(KIWIPETE), 4, table));
+        assertEquals(674624, Perft.perft(FEN.getGame(POSITION_3), 5, table));
+        assertEquals(4865609, Perft.perftParallel(FEN.getGame(INITIAL), 5, ForkJoinPool.commonPool(), new TranspositionTable(4)));
+    }
+}
@@ -0,0 +1,229 @@
+import com.nathanholmberg.chess.engine.exceptions.IllegalNotationException;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.pieces.Piece;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.types.Position;
+import com.nathanholmberg.chess.engine.utils.FEN;
+import com.nathanholmberg.chess.engine.utils.MoveUtils;
+
+import java.util.List;
+
+/**
+ * A utility for benchmarking the SAN parser against the string based parser it replaced.
+ *
+ * <p>Converts every legal move of a few busy positions to SAN, then parses all of them back, once with
+ * the old parser, which cut the notation apart with string operations and tried <code>isMoveLegal</code>
+ * on each candidate square, and once with <code>MoveUtils.fromAlgebraic</code>, which tokenizes the
+ * notation once and matches it against the legal move list. Both must agree, and the time for each is printed.</p>
+ */
+public class SANSpeedTest {
+    private static final int ITERATIONS = 500;
+    private static final String[] FENS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b KQkq - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "1r2k3/P7/8/8/8/8/6p1/4K3 w - - 0 1"
+    };
+
+    public static void main(String[] args) {
+        // Setup Games and their SAN
+        ChessGame[] chessGames = new ChessGame[FENS.length];
+        String[][] notations = new String[FENS.length][];
+        int count = 0;
+        for (int i = 0; i < FENS.length; i++) {
+            chessGames[i] = FEN.getGame(FENS[i]);
+            List<Move> moves = chessGames[i].generateLegalMoves();
+            notations[i] = new String[moves.size()];
+            for (int j = 0; j < moves.size(); j++) {
+                notations[i][j] = MoveUtils.toAlgebraic(moves.get(j), chessGames[i]);
+            }
+            count += moves.size();
+        }
+
+        // Warm Up, and both must agree
+        for (int i = 0; i < chessGames.length; i++) {
+            for (String notation : notations[i]) {
+                if (!legacyFromAlgebraic(notation, chessGames[i]).equals(MoveUtils.fromAlgebraic(notation, chessGames[i]))) {
+                    throw new IllegalStateException("Parsers disagree on " + notation + " in " + FENS[i]);
+                }
+            }
+        }
+        for (int i = 0; i < 20; i++) { runLegacy(chessGames, notations); runParser(chessGames, notations); }
+
+        // Suggest garbage collection
+        System.gc();
+        try { Thread.sleep(100); } catch (InterruptedException ignored) { }
+
+        // Legacy
+        long startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) { runLegacy(chessGames, notations); }
+        long endTime = System.nanoTime();
+        double legacyTime = (endTime - startTime) / 1_000_000.0;
+
+        // Parser
+        startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) { runParser(chessGames, notations); }
+        endTime = System.nanoTime();
+        double parserTime = (endTime - startTime) / 1_000_000.0;
+
+        // Print
+        System.out.println("Notations per run: " + count);
+        System.out.println("Legacy parser time (ms): " + legacyTime);
+        System.out.println("SAN parser time (ms): " + parserTime);
+        System.out.println("Speed up: " + legacyTime / parserTime + "x");
+    }
+
+    private static int runLegacy(ChessGame[] chessGames, String[][] notations) {
+        int hash = 0;
+        for (int i = 0; i < chessGames.length; i++) {
+            for (String notation : notations[i]) {
+                hash += legacyFromAlgebraic(notation, chessGames[i]).hashCode();
+            }
+        }
+        return hash;
+    }
+
+    private static int runParser(ChessGame[] chessGames, String[][] notations) {
+        int hash = 0;
+        for (int i = 0; i < chessGames.length; i++) {
+            for (String notation : notations[i]) {
+                hash += MoveUtils.fromAlgebraic(notation, chessGames[i]).hashCode();
+            }
+        }
+        return hash;
+    }
+
+    // The parser MoveUtils.fromAlgebraic used before the SAN tokenizer
+    private static Position resolveAmbiguity(String ambiguity, char pieceChar, Position finalPosition, ChessGame chessGame) {
+        if (ambiguity.length() > 2) {
+            throw new IllegalNotationException("Invalid Algebraic Notation: Ambiguity is too long: '" + ambiguity + "'.");
+        }
+
+        // Find Initial Position
+        for (Position currentPos : chessGame.board.getPiecePositionsByColor(chessGame.getTurn())) {
+            Piece currentPiece = chessGame.board.getPieceAt(currentPos);
+
+            // Skip Wrong Instance
+            if (Character.toUpperCase(currentPiece.toChar()) != Character.toUpperCase(pieceChar)) { continue; }
+            // Skip Illegal Moves
+            if (!chessGame.isMoveLegal(Move.of(currentPos, finalPosition, 'Q'))) { continue; }
+
+            // No Ambiguity
+            if (ambiguity.isEmpty()) {
+                return currentPos;
+            }
+
+            // Some Ambiguity
+            if (ambiguity.length() == 1) {
+                // File Ambiguity
+                if (ambiguity.charAt(0) == currentPos.rankToChar()) {
+                    return currentPos;
+                }
+
+                // Rank Ambiguity
+                if (ambiguity.charAt(0) == currentPos.fileToChar()) {
+                    return currentPos;
+                }
+            }
+
+            // All Ambiguity
+            if (ambiguity.length() == 2) {
+                // Check if currentPos is it
+                if (currentPos.toAlgebraic().equals(ambiguity)) {
+                    return currentPos;
+                }
+            }
+        }
+        throw new IllegalNotationException("Ambiguous algebraic notation: cannot resolve initial position from ambiguity: '" + ambiguity + "'.");
+    }
+
+    private static Move createCastlingMove(ChessGame chessGame, boolean isKingSide) {
+        Position initialPosition = chessGame.board.getKingPosition(chessGame.getTurn());
+        Position finalPosition = initialPosition.move(isKingSide ? 2 : -2, 0);
+        return Move.of(initialPosition, finalPosition, '\0');
+    }
+
+    private static Move legacyFromAlgebraic(String notation, ChessGame chessGame) {
+        Position initialPosition;
+        Position finalPosition;
+        char promotionPiece = '\0';
+
+        // Original Notation
+        String originalNotation = notation;
+
+        // Ensure notation is not null or empty
+        if (notation == null || notation.isEmpty()) {
+            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'");
+        }
+
+        // Handle Extras
+        boolean isCapture = notation.contains("x");
+        boolean causesCheck = notation.contains("+");
+        boolean causesCheckmate = notation.contains("#");
+        boolean isPromotion = notation.contains("=");
+        notation = notation.replaceAll("[+#x]", "");
+
+        // Handle castling
+        if (notation.equals("O-O")) {
+            return createCastlingMove(chessGame, true);
+        } else if (notation.equals("O-O-O")) {
+            return createCastlingMove(chessGame, false);
+        }
+
+        // Handle Promotion
+        if (isPromotion) {
+            int promotionIndex = notation.indexOf('=');
+
+            // Update Promotion Piece
+            promotionPiece = notation.charAt(promotionIndex + 1);
+
+            // Remove Promotion Part
+            notation = notation.substring(0, promotionIndex);
+        }
+
+        // Get Final Position
+        String finalPositionString = notation.substring(notation.length() - 2);
+        finalPosition = Position.fromAlgebraic(finalPositionString);
+
+        // Remove Final Position from notation
+        notation = notation.substring(0, notation.length() - 2);
+
+        // Get Piece To Move Char
+        char pieceToMoveChar = (notation.isEmpty() || !Character.isUpperCase(notation.charAt(0)))
+                ? 'P'
+                : Character.toUpperCase(notation.charAt(0));
+
+        // Remove piece character from notation if it's not a pawn
+        if (pieceToMoveChar != 'P') {
+            notation = notation.substring(1);
+        }
+
+        // Resolve Ambiguity
+        try {
+            initialPosition = resolveAmbiguity(notation, pieceToMoveChar, finalPosition, chessGame);
+        } catch (IllegalNotationException e) {
+            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'. ");
+        }
+
+        // Validate the move
+        Move move = Move.of(initialPosition, finalPosition, promotionPiece);
+        if (!chessGame.isMoveLegal(move)) {
+            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'. Move is not legal.");
+        }
+
+        // Check for extras
+        if (isCapture ^ MoveUtils.isCapture(move, chessGame)) {
+            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'. Capture symbol does not match move.");
+        }
+        if ((causesCheck ^ MoveUtils.causesCheck(move, chessGame)) && !causesCheckmate) {
+            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'. Check symbol does not match move.");
+        }
+        if (causesCheckmate ^ MoveUtils.causesCheckmate(move, chessGame)) {
+            throw new IllegalNotationException("Illegal Algebraic Notation: '" + originalNotation + "'. Checkmate symbol does not match move.");
+        }
+
+        // Return Move
+        return move;
+    }
+}
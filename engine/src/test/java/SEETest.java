@@ -0,0 +1,67 @@
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.search.SEE;
+import com.nathanholmberg.chess.engine.types.PackedMove;
+import com.nathanholmberg.chess.engine.utils.FEN;
+import com.nathanholmberg.chess.engine.utils.MoveUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for static exchange evaluation.
+ *
+ * <p>These tests check free and losing captures, that pieces lined up behind a capturer join the
+ * exchange, that a king never recaptures onto a defended square, and that promotions and en passant
+ * count the material they win.</p>
+ */
+public class SEETest {
+    private static int see(String fen, String san) {
+        ChessGame chessGame = FEN.getGame(fen);
+        return SEE.see(chessGame, MoveUtils.fromAlgebraic(san, chessGame));
+    }
+
+    @Test
+    public void exchangeTest() {
+        // An undefended pawn
+        assertEquals(100, see("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "Rxe5"));
+
+        // Knight for pawn, then the rook and queen behind it are not enough against knight, bishop and queen
+        assertEquals(-220, see("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "Nxe5"));
+
+        // A pawn defended by a pawn
+        assertEquals(-800, see("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1", "Qxd5"));
+
+        // Quiet moves onto attacked squares lose the piece
+        assertEquals(-900, see("4k3/8/4p3/8/8/8/8/3QK3 w - - 0 1", "Qd5"));
+        assertEquals(0, see("4k3/8/8/8/8/8/8/3QK3 w - - 0 1", "Qd5"));
+    }
+
+    @Test
+    public void xRayTest() {
+        // The rook on d1 backs up the rook on d2
+        assertEquals(100, see("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "Rxd5"));
+        assertEquals(-400, see("3rk3/8/8/3p4/8/8/3R4/4K3 w - - 0 1", "Rxd5"));
+    }
+
+    @Test
+    public void kingTest() {
+        // The king recaptures an undefended rook, so black does not take back
+        assertEquals(100, see("4r1k1/8/8/8/8/2N5/4p3/5K2 w - - 0 1", "Nxe2"));
+
+        // With the bishop also defending, the king cannot recapture
+        assertEquals(-220, see("4r1k1/8/8/7b/8/2N5/4p3/5K2 w - - 0 1", "Nxe2"));
+    }
+
+    @Test
+    public void specialMovesTest() {
+        // Promotion, free and onto a defended square
+        ChessGame chessGame = FEN.getGame("4k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        assertEquals(800, SEE.see(chessGame.board, PackedMove.encode(48, 56, PackedMove.QUEEN_PROMOTION)));
+        chessGame = FEN.getGame("1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        assertEquals(-100, SEE.see(chessGame.board, PackedMove.encode(48, 56, PackedMove.QUEEN_PROMOTION)));
+        assertEquals(1300, SEE.see(chessGame.board, PackedMove.encode(48, 57, PackedMove.QUEEN_PROMOTION | PackedMove.CAPTURE)));
+
+        // En passant, recaptured by the knight
+        assertEquals(0, see("4k3/8/8/1n1pP3/8/8/8/4K3 w - d6 0 1", "exd6"));
+    }
+}
@@ -0,0 +1,111 @@
+import com.nathanholmberg.chess.engine.search.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the transposition table.
+ *
+ * <p>These tests check that entries round-trip through their packed form, that buckets hold several
+ * positions and replace the entry worth least, that old searches age out, that perft counts are kept
+ * apart by depth, and that threads writing at once never read back another position's data.</p>
+ */
+public class TranspositionTableTest {
+    // Keys that share a bucket in any table size
+    private static long keyInBucket(int i) {
+        return ((long) i << 40) | 0x1234L;
+    }
+
+    @Test
+    public void storeProbeTest() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(1, table.getSizeMB());
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(42));
+
+        table.store(42, 0x1234, -31000, 17, TranspositionTable.LOWER_BOUND);
+        long data = table.probe(42);
+        assertEquals(0x1234, TranspositionTable.getMove(data));
+        assertEquals(-31000, TranspositionTable.getScore(data));
+        assertEquals(17, TranspositionTable.getDepth(data));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(data));
+
+        // A shallower bound does not replace a deeper entry, an exact score does and keeps the move
+        table.store(42, 0, 5, 3, TranspositionTable.UPPER_BOUND);
+        assertEquals(17, TranspositionTable.getDepth(table.probe(42)));
+        table.store(42, 0, 5, 3, TranspositionTable.EXACT);
+        assertEquals(3, TranspositionTable.getDepth(table.probe(42)));
+        assertEquals(0x1234, TranspositionTable.getMove(table.probe(42)));
+
+        table.clear();
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(42));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    public void replacementTest() {
+        TranspositionTable table = new TranspositionTable(1);
+
+        // A full bucket keeps the deepest entries
+        for (int i = 0; i < TranspositionTable.BUCKET_SIZE; i++) {
+            table.store(keyInBucket(i), 0, 0, 10 + i, TranspositionTable.EXACT);
+        }
+        table.store(keyInBucket(100), 0, 0, 20, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(keyInBucket(0)));
+        assertEquals(20, TranspositionTable.getDepth(table.probe(keyInBucket(100))));
+        assertEquals(11, TranspositionTable.getDepth(table.probe(keyInBucket(1))));
+
+        // Entries from an earlier search count for 8 plies less
+        table.newSearch();
+        table.store(keyInBucket(1), 0, 0, 15, TranspositionTable.EXACT);
+        table.store(keyInBucket(2), 0, 0, 15, TranspositionTable.EXACT);
+        table.store(keyInBucket(3), 0, 0, 15, TranspositionTable.EXACT);
+        table.store(keyInBucket(101), 0, 0, 1, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(keyInBucket(100)));
+        assertEquals(1, TranspositionTable.getAge(table.probe(keyInBucket(101))));
+    }
+
+    @Test
+    public void countTest() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(-1, table.probeCount(7, 3));
+
+        table.storeCount(7, 3, 8902);
+        table.storeCount(7, 4, 0);
+        assertEquals(8902, table.probeCount(7, 3));
+        assertEquals(0, table.probeCount(7, 4));
+        assertEquals(-1, table.probeCount(7, 5));
+    }
+
+    @Test
+    public void concurrentTest() throws InterruptedException {
+        // Every thread writes entries whose data is derived from the key, into a table much too small
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicInteger corrupted = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = random.nextLong(1_000_000);
+                    table.store(key, (int) (key & 0xFFFF), (short) key, (int) (key & 0x7F), TranspositionTable.EXACT);
+                    key = random.nextLong(1_000_000);
+                    long data = table.probe(key);
+                    if (data != TranspositionTable.NO_ENTRY && (TranspositionTable.getMove(data) != (key & 0xFFFF)
+                            || TranspositionTable.getScore(data) != (short) key || TranspositionTable.getDepth(data) != (key & 0x7F))) {
+                        corrupted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, corrupted.get());
+    }
+}
@@ -0,0 +1,84 @@
+import com.nathanholmberg.chess.engine.ai.RandomAI;
+import com.nathanholmberg.chess.engine.enums.GameResult;
+import com.nathanholmberg.chess.engine.game.ChessGame;
+import com.nathanholmberg.chess.engine.types.Move;
+import com.nathanholmberg.chess.engine.utils.FEN;
+import com.nathanholmberg.chess.engine.utils.MoveUtils;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Unit tests for the Zobrist keys of <code>Board</code> and <code>ChessGame</code>.
+ *
+ * <p>The key is updated move by move, so it is compared against the key of the same position
+ * loaded fresh from its FEN. The repetition tests play moves back and forth to reach
+ * threefold repetition through the key history.</p>
+ */
+public class ZobristTest {
+    private static void play(ChessGame chessGame, String... moves) {
+        for (String move : moves) {
+            chessGame.move(MoveUtils.fromAlgebraic(move, chessGame));
+        }
+    }
+
+    @RepeatedTest(5)
+    public void randomGameTest() {
+        ChessGame chessGame = new ChessGame();
+
+        // Play a random game
+        while (chessGame.inPlay()) {
+            assertEquals(FEN.getGame(FEN.getFEN(chessGame)).getZobristKey(), chessGame.getZobristKey(), FEN.getFEN(chessGame));
+
+            // Make and unmake every move
+            long key = chessGame.board.getZobristKey();
+            for (Move move : chessGame.generateLegalMoves()) {
+                long undo = chessGame.board.makeMove(move);
+                chessGame.board.unmakeMove(undo);
+                assertEquals(key, chessGame.board.getZobristKey());
+            }
+
+            chessGame.move(new RandomAI().getMove(chessGame));
+        }
+    }
+
+    @Test
+    public void keyPartsTest() {
+        String fen = "r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1";
+        long key = FEN.getGame(fen).getZobristKey();
+
+        // Side to move, castling rights and a usable en passant square all change the key
+        assertNotEquals(key, FEN.getGame("r3k2r/8/8/3pP3/8/8/8/R3K2R b KQkq - 0 1").getZobristKey());
+        assertNotEquals(key, FEN.getGame("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kkq d6 0 1").getZobristKey());
+        assertNotEquals(key, FEN.getGame("r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq - 0 1").getZobristKey());
+
+        // An en passant square no pawn can use does not
+        assertEquals(FEN.getGame("4k3/8/8/3p4/8/8/8/4K3 w - d6 0 1").getZobristKey(),
+                FEN.getGame("4k3/8/8/3p4/8/8/8/4K3 w - - 0 1").getZobristKey());
+    }
+
+    @Test
+    public void threefoldRepetitionTest() {
+        ChessGame chessGame = new ChessGame();
+
+        // The start position occurs for the third time after the second shuffle
+        play(chessGame, "Nf3", "Nf6", "Ng1", "Ng8", "Nf3", "Nf6", "Ng1");
+        assertEquals(GameResult.ON_GOING, chessGame.getResult());
+        play(chessGame, "Ng8");
+        assertEquals(3, chessGame.getRepetitionCount());
+        assertEquals(GameResult.THREEFOLD_REPETITION, chessGame.getResult());
+    }
+
+    @Test
+    public void pawnMoveResetsRepetitionTest() {
+        ChessGame chessGame = new ChessGame();
+
+        // Repeat once, push a pawn, then repeat again: no position occurs three times
+        play(chessGame, "Nf3", "Nf6", "Ng1", "Ng8", "e4", "e5", "Nf3", "Nf6", "Ng1", "Ng8");
+        assertEquals(2, chessGame.getRepetitionCount());
+        assertEquals(GameResult.ON_GOING, chessGame.getResult());
+    }
+}